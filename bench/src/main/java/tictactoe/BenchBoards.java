@@ -0,0 +1,47 @@
+package tictactoe;
+
+//
+// The boards used by the benchmarks
+//
+public class BenchBoards {
+    //
+    // Create a board in the given state
+    //
+    // Arguments:
+    //    state - empty, midgame (X center and corner, O edge) or nearfull (one square left, no winner)
+    //
+    public static Board create(String state) {
+        Board board = new Board() ;
+
+        if (state.equals("midgame")) {
+            //
+            //  X | O |
+            //    | X |
+            //    |   |
+            //
+            board.setPiece(new BoardPosition(1, 1), GamePiece.X) ;
+            board.setPiece(new BoardPosition(0, 1), GamePiece.O) ;
+            board.setPiece(new BoardPosition(0, 0), GamePiece.X) ;
+        }
+        else if (state.equals("nearfull")) {
+            //
+            //  X | O | X
+            //  X | O | O
+            //  O | X |
+            //
+            board.setPiece(new BoardPosition(0, 0), GamePiece.X) ;
+            board.setPiece(new BoardPosition(0, 1), GamePiece.O) ;
+            board.setPiece(new BoardPosition(0, 2), GamePiece.X) ;
+            board.setPiece(new BoardPosition(1, 1), GamePiece.O) ;
+            board.setPiece(new BoardPosition(1, 0), GamePiece.X) ;
+            board.setPiece(new BoardPosition(1, 2), GamePiece.O) ;
+            board.setPiece(new BoardPosition(2, 1), GamePiece.X) ;
+            board.setPiece(new BoardPosition(2, 0), GamePiece.O) ;
+        }
+        else if (!state.equals("empty")) {
+            throw new IllegalArgumentException("'" + state + "' is not a valid board state") ;
+        }
+
+        return board ;
+    }
+}
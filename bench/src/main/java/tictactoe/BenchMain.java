@@ -0,0 +1,20 @@
+package tictactoe;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//
+// Run the benchmarks with the GC profiler always enabled, so every result also shows how
+// many bytes each operation allocates.  The command line takes the same arguments as the JMH
+// runner.
+//
+public class BenchMain {
+    static public void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdline = new CommandLineOptions(args) ;
+        new Runner(new OptionsBuilder().parent(cmdline).addProfiler(GCProfiler.class).build()).run() ;
+    }
+}
@@ -0,0 +1,58 @@
+package tictactoe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//
+// Benchmarks for the Board methods the players and the GameMgr call on every move.  Each
+// benchmark runs on an empty board, a board in the middle of a game and a board with one
+// square left.  None of these boards has been won, so hasWon() has to check every line.
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({ "empty", "midgame", "nearfull" })
+    public String state ;
+
+    private Board board_ ;
+
+    @Setup
+    public void setup() {
+        board_ = BenchBoards.create(state) ;
+    }
+
+    @Benchmark
+    public Board.GameWonInfo hasWon() {
+        return board_.hasWon() ;
+    }
+
+    @Benchmark
+    public BoardPosition hasTwoX() {
+        return board_.hasTwo(GamePiece.X) ;
+    }
+
+    @Benchmark
+    public BoardPosition hasTwoO() {
+        return board_.hasTwo(GamePiece.O) ;
+    }
+
+    @Benchmark
+    public Object findEmpty() {
+        return board_.findEmpty() ;
+    }
+}
@@ -0,0 +1,67 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//
+// Benchmark a complete game between two computer players.  The loop is the same as
+// GameMgr.playOneGame() with no display: clear the board, then ask each player in turn for a
+// move and check for a win after every move.
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    @Param({ "novice", "expert", "perfect", "table" })
+    public String x ;
+
+    @Param({ "novice", "expert" })
+    public String o ;
+
+    private Board board_ ;
+    private Player x_ ;
+    private Player o_ ;
+
+    @Setup
+    public void setup() throws IOException {
+        PlayerFactory factory = new PlayerFactory(TablebaseSolver.DefaultFile, 2000, 0) ;
+        board_ = new Board() ;
+        x_ = factory.create(x, GamePiece.X, 1) ;
+        o_ = factory.create(o, GamePiece.O, 2) ;
+    }
+
+    @Benchmark
+    public Board.GameWonInfo playOneGame() {
+        Board.GameWonInfo info = null ;
+        Player who = x_ ;
+        board_.clearBoard() ;
+
+        while (true) {
+            BoardPosition pos = who.nextMove(board_) ;
+            board_.setPiece(pos, who.getMyGamePiece()) ;
+
+            info = board_.hasWon() ;
+            if (info != null)
+                break ;
+
+            who = (who == x_) ? o_ : x_ ;
+        }
+
+        return info ;
+    }
+}
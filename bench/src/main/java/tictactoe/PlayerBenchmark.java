@@ -0,0 +1,53 @@
+package tictactoe;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//
+// Benchmarks for ComputerPlayer.nextMove() at each skill level on the same boards as
+// the BoardBenchmark.  The player only reads the board, so the same board is used for
+// every call.
+//
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBenchmark {
+    @Param({ "empty", "midgame", "nearfull" })
+    public String state ;
+
+    @Param({ "0.3", "0.6", "1.0" })
+    public double skill ;
+
+    private Board board_ ;
+    private Player player_ ;
+
+    @Setup
+    public void setup() {
+        board_ = BenchBoards.create(state) ;
+
+        //
+        // X has made one more move than O on the midgame board, so O is to move
+        //
+        GamePiece piece = (board_.totalPlayed() % 2 == 0) ? GamePiece.X : GamePiece.O ;
+        player_ = new ComputerPlayer(piece, skill, 42) ;
+    }
+
+    @Benchmark
+    public BoardPosition nextMove() {
+        return player_.nextMove(board_) ;
+    }
+}
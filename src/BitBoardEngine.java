@@ -0,0 +1,144 @@
+//
+// A board engine for the classic 3x3 game that stores the board as two 9 bit masks, one
+// for the X pieces and one for the O pieces.  Bit N of a mask is the square with index N
+// (row * 3 + col).  Wins and two-in-a-row threats are found by comparing the masks against
+// a precomputed mask for each of the eight lines, so no objects are created and no arrays
+// are walked while checking the board.
+//
+public class BitBoardEngine implements IBoardEngine {
+    //
+    // The mask with all nine squares set
+    //
+    public static final int FullMask = 0x1FF ;
+
+    //
+    // The masks for the combinations of squares where you can win the game
+    //
+    public static final int [] LineMasks = new int[] {
+        0x007,                                      // First row
+        0x038,                                      // Second row
+        0x1C0,                                      // Third row
+        0x049,                                      // First column
+        0x092,                                      // Second column
+        0x124,                                      // Third column
+        0x111,                                      // First diagonal
+        0x054,                                      // Second diagonal
+    } ;
+
+    //
+    // The squares that make up each of the lines above, used to report where a game was won
+    //
+    private static final BoardPosition [][] LineSquares = new BoardPosition[LineMasks.length][] ;
+
+    static {
+        for(int line = 0 ; line < LineMasks.length ; line++) {
+            BoardPosition [] squares = new BoardPosition[3] ;
+            int entry = 0 ;
+            for(int index = 0 ; index < 9 ; index++) {
+                if ((LineMasks[line] & (1 << index)) != 0) {
+                    squares[entry++] = BoardPosition.of(index / 3, index % 3) ;
+                }
+            }
+            LineSquares[line] = squares ;
+        }
+    }
+
+    private int x_ ;                                // The squares occupied by X
+    private int o_ ;                                // The squares occupied by O
+
+    //
+    // Create a new empty board
+    //
+    public BitBoardEngine() {
+        x_ = 0 ;
+        o_ = 0 ;
+    }
+
+    public int rows() {
+        return 3 ;
+    }
+
+    public int cols() {
+        return 3 ;
+    }
+
+    public int winLength() {
+        return 3 ;
+    }
+
+    public void clear() {
+        x_ = 0 ;
+        o_ = 0 ;
+    }
+
+    public int totalPlayed() {
+        return Integer.bitCount(x_ | o_) ;
+    }
+
+    public GamePiece getPiece(int index) {
+        int bit = 1 << index ;
+
+        if ((x_ & bit) != 0)
+            return GamePiece.X ;
+
+        if ((o_ & bit) != 0)
+            return GamePiece.O ;
+
+        return GamePiece.EMPTY ;
+    }
+
+    public void setPiece(int index, GamePiece gp) {
+        int bit = 1 << index ;
+        assert ((x_ | o_) & bit) == 0 ;
+
+        if (gp == GamePiece.X) {
+            x_ |= bit ;
+        }
+        else if (gp == GamePiece.O) {
+            o_ |= bit ;
+        }
+    }
+
+    public int findTwo(GamePiece p) {
+        int mine = (p == GamePiece.X) ? x_ : o_ ;
+        int theirs = (x_ | o_) & ~mine ;
+
+        for(int line = 0 ; line < LineMasks.length ; line++) {
+            int mask = LineMasks[line] ;
+            if ((mask & theirs) == 0 && Integer.bitCount(mask & mine) == 2) {
+                return Integer.numberOfTrailingZeros(mask & ~mine) ;
+            }
+        }
+
+        return -1 ;
+    }
+
+    public int winningLine() {
+        for(int line = 0 ; line < LineMasks.length ; line++) {
+            int mask = LineMasks[line] ;
+            if ((x_ & mask) == mask || (o_ & mask) == mask) {
+                return line ;
+            }
+        }
+
+        return -1 ;
+    }
+
+    public int lineCount() {
+        return LineMasks.length ;
+    }
+
+    public BoardPosition [] lineSquares(int line) {
+        return LineSquares[line] ;
+    }
+
+    public long getMask(GamePiece p) {
+        if (p == GamePiece.X)
+            return x_ ;
+
+        if (p == GamePiece.O)
+            return o_ ;
+
+        return FullMask & ~(x_ | o_) ;
+    }
+}
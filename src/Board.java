@@ -1,192 +1,502 @@
-import java.util.ArrayList;
-import java.util.List;
-
-//
-// This class represents a tic tac toe board with pieces placed on the
-// board.  This class includes methods to get and set pices on the board.  It also
-// contains methods to determine if either X or O has won or the board is full and it
-// is a tie.  Finally, this class includes methods to help player classes by providing
-// search methods to find empty spots on the board, or rows, columns, or diagnols that
-// have two squares occupied and the third empty.
-//
-public class Board {
-    public class GameWonInfo
-    {
-        public final GamePiece who ;                                    // Who won the game X or O
-        public final BoardPosition [] where ;                           // The location where the game was won
-
-        public GameWonInfo(GamePiece who, BoardPosition [] where) {
-            this.who = who ;
-            this.where = where ;
-        }
-    }
-
-    //
-    // The board is stored as a one dimensional array.  This makes it a little easier to
-    // deal with the creation.
-    //
-    private GamePiece [] board_ ;
-
-    //
-    // Create a new board
-    public Board() {
-        board_ = new GamePiece[9] ;
-        clearBoard() ;
-    }
-
-    //
-    // Return the total number of squares played so far
-    //
-    public int totalPlayed() {
-        int total = 0 ;
-        for(int row = 0 ; row < 3 ; row++) {
-            for(int col = 0 ; col < 3 ; col++) {
-                if (getPiece(new BoardPosition(row, col)) != GamePiece.EMPTY) {
-                    total++ ;
-                }
-            }
-        }
-
-        return total ;
-    }
-
-    //
-    // Reset the board to all empty
-    //
-    public void clearBoard() {
-        for(int i = 0 ; i < board_.length ; i++) {
-            board_[i] = GamePiece.EMPTY ;
-        }
-    }
-
-    //
-    // Get the game piece type at the given row and column
-    //
-    public GamePiece getPiece(BoardPosition pos) {
-        return board_[computeBoardIndex(pos.Row, pos.Col)] ;
-    }
-
-    //
-    // Set the game piece type at the given row and column
-    //
-    public void setPiece(BoardPosition pos, GamePiece gp) {
-        assert getPiece(pos) == GamePiece.EMPTY ;
-        board_[computeBoardIndex(pos.Row, pos.Col)] = gp ;
-    }
-
-    //
-    // Return the list of empty locations on the board.  This is used by
-    // clients that want to know what spots are empty.  With this method clients
-    // don't have to iterate over the board and create a list of empty spots.
-    //
-    public List<BoardPosition> findEmpty() {
-        List<BoardPosition> ret = new ArrayList<BoardPosition>() ;
-         
-        for(int row = 0 ; row < 3 ; row++) {
-            for(int col = 0 ; col < 3 ; col++) {
-                if (getPiece(new BoardPosition(row, col)) == GamePiece.EMPTY) {
-                    ret.add(new BoardPosition(row, col)) ;
-                }
-            }
-        }
-
-        return ret;
-    }
-
-    //
-    // Find any of the rows, columns, or diagnols where there are two of the game piece
-    // given and an empty spot.  This is a row, column, or diagnol where either we could win
-    // or we need to block.
-    //
-    public BoardPosition hasTwo(GamePiece p) {
-        BoardPosition pos = null ;
-
-        for(int set = 0 ; set < WinningSets.length ; set++) {
-            //
-            // We expect all winning sets to be three entries long.
-            //
-            assert WinningSets[set].length == 3 ;
-
-            int total = 0 ;
-
-            BoardPosition spos = null ;
-            for(int entry = 0 ; entry < WinningSets[set].length ; entry++) {
-                GamePiece gp = getPiece(WinningSets[set][entry]) ;
-                total += gp.value ;
-
-                if (gp == GamePiece.EMPTY) {
-                    spos = WinningSets[set][entry] ;
-                }
-            }
-
-            if (total == 2.0 * p.value) {
-                pos = spos ;
-                break ;
-            }
-        }
-
-        return pos ;
-    }
-
-    //
-    // Determine if anyone has won the game.  If not one has won
-    // null is returned.  If someone has won, the GameWonInfo is returned
-    // providing information about who won and where they won.
-    //
-    public GameWonInfo hasWon() {
-        GameWonInfo ret = null ;
-
-        for(int set = 0 ; set < WinningSets.length ; set++) {
-            //
-            // We expect all winning sets to be three entries long.
-            //
-            assert WinningSets[set].length == 3 ;
-
-            int total = 0 ;
-
-            for(int entry = 0 ; entry < WinningSets[set].length ; entry++) {
-                GamePiece gp = getPiece(WinningSets[set][entry]) ;
-                total += gp.value ;
-            }
-
-            if (total == 3 || total == -3) {
-                GamePiece who = getPiece(WinningSets[set][0]);
-                BoardPosition [] where  = WinningSets[set] ;
-                ret = new GameWonInfo(who, where) ;
-            }
-        }
-
-        if (ret == null && findEmpty().size() == 0) {
-            //
-            // There are no emptry squared
-            //
-            ret = new GameWonInfo(GamePiece.EMPTY, null);
-        }
-
-        return ret ;
-    }
-
-    //
-    // Compute the index into the board_ array given a row and column.  The
-    // row and column values are zero based.
-    //
-    private int computeBoardIndex(int row, int col) {
-        return row * 3 + col ;
-    }
-
-    //
-    // The combinations of squares where you can win the game.
-    //
-    // This could be expressed as an algorithm as well.  This is really just a personal choice
-    //
-    private BoardPosition [][] WinningSets = new BoardPosition[][] {
-        new BoardPosition[] { new BoardPosition(0, 0) , new BoardPosition(0, 1), new BoardPosition(0, 2) },     // First row
-        new BoardPosition[] { new BoardPosition(1, 0) , new BoardPosition(1, 1), new BoardPosition(1, 2) },     // Second row
-        new BoardPosition[] { new BoardPosition(2, 0) , new BoardPosition(2, 1), new BoardPosition(2, 2) },     // Third row
-        new BoardPosition[] { new BoardPosition(0, 0) , new BoardPosition(1, 0), new BoardPosition(2, 0) },     // First column
-        new BoardPosition[] { new BoardPosition(0, 1) , new BoardPosition(1, 1), new BoardPosition(2, 1) },     // Second column
-        new BoardPosition[] { new BoardPosition(0, 2) , new BoardPosition(1, 2), new BoardPosition(2, 2) },     // Third column
-        new BoardPosition[] { new BoardPosition(0, 0) , new BoardPosition(1, 1), new BoardPosition(2, 2) },     // First diagonal
-        new BoardPosition[] { new BoardPosition(0, 2) , new BoardPosition(1, 1), new BoardPosition(2, 0) },     // Second diagonal
-    } ;
-}
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+//
+// This class represents a tic tac toe board with pieces placed on the
+// board.  This class includes methods to get and set pices on the board.  It also
+// contains methods to determine if either X or O has won or the board is full and it
+// is a tie.  Finally, this class includes methods to help player classes by providing
+// search methods to find empty spots on the board, or rows, columns, or diagnols that
+// have two squares occupied and the third empty.
+//
+public class Board {
+    public class GameWonInfo
+    {
+        public final GamePiece who ;                                    // Who won the game X or O
+        public final BoardPosition [] where ;                           // The location where the game was won
+
+        public GameWonInfo(GamePiece who, BoardPosition [] where) {
+            this.who = who ;
+            this.where = where ;
+        }
+    }
+
+    //
+    // The largest number of squares a board can have and still have an index.  3 to
+    // the power 19 is the largest power of 3 that fits in an int.
+    //
+    public static final int MaxIndexedSquares = 19 ;
+
+    //
+    // The powers of 3, used to compute the index of a board
+    //
+    private static final int [] Pow3 = new int[MaxIndexedSquares + 1] ;
+
+    static {
+        Pow3[0] = 1 ;
+        for(int i = 1 ; i < Pow3.length ; i++) {
+            Pow3[i] = Pow3[i - 1] * 3 ;
+        }
+    }
+
+    //
+    // The engine that stores the pieces and checks the lines on the board
+    //
+    private IBoardEngine engine_ ;
+
+    //
+    // The symmetries of the board, or null if the board is not square
+    //
+    private Symmetry symmetry_ ;
+
+    //
+    // The seed for the Zobrist keys.  It is fixed so every board of the same size uses the
+    // same keys, and a key can be saved or shared between threads.
+    //
+    private static final long ZobristSeed = 0x5DEECE66DL ;
+
+    //
+    // The random key for each square and game piece, X at 2 * square and O at 2 * square + 1
+    //
+    private long [] zobristKeys_ ;
+
+    //
+    // The Zobrist key of the board, kept up to date as pieces are placed
+    //
+    private long zobrist_ ;
+
+    //
+    // The index of the board (see encode()), kept up to date as pieces are placed
+    //
+    private int index_ ;
+
+    //
+    // The number of squares played, kept up to date as pieces are placed
+    //
+    private int played_ ;
+
+    //
+    // The position of each square, so moves and searches share one object per square
+    //
+    private BoardPosition [] squares_ ;
+
+    //
+    // The result of the game for each line and winner, X at 2 * line and O at 2 * line + 1,
+    // and for a tie.  They are created once, so hasWon() does not create an object each game.
+    //
+    private GameWonInfo [] won_ ;
+    private GameWonInfo tied_ ;
+
+    //
+    // Create a new board
+    public Board() {
+        this(new BitBoardEngine()) ;
+    }
+
+    //
+    // Create a new board backed by the given board engine
+    //
+    // Arguments:
+    //    engine - the engine that stores the pieces and checks the lines
+    //
+    public Board(IBoardEngine engine) {
+        engine_ = engine ;
+
+        SplittableRandom random = new SplittableRandom(ZobristSeed) ;
+        zobristKeys_ = new long[engine.rows() * engine.cols() * 2] ;
+        for(int i = 0 ; i < zobristKeys_.length ; i++) {
+            zobristKeys_[i] = random.nextLong() ;
+        }
+
+        if (engine.rows() == engine.cols() && engine.rows() * engine.cols() <= 64) {
+            symmetry_ = Symmetry.forSide(engine.rows()) ;
+        }
+
+        squares_ = new BoardPosition[engine.rows() * engine.cols()] ;
+        for(int square = 0 ; square < squares_.length ; square++) {
+            squares_[square] = BoardPosition.of(square / engine.cols(), square % engine.cols()) ;
+        }
+
+        won_ = new GameWonInfo[engine.lineCount() * 2] ;
+        tied_ = new GameWonInfo(GamePiece.EMPTY, null) ;
+
+        clearBoard() ;
+    }
+
+    //
+    // Create a board of the given size.  The classic board uses the bitboard engine, any
+    // other size uses the general m,n,k engine.
+    //
+    // Arguments:
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //
+    public static Board create(int rows, int cols, int k) throws IllegalArgumentException {
+        if (rows == 3 && cols == 3 && k == 3) {
+            return new Board() ;
+        }
+
+        return new Board(new MnkBoardEngine(rows, cols, k)) ;
+    }
+
+    //
+    // Return the number of rows on the board
+    //
+    public int rows() {
+        return engine_.rows() ;
+    }
+
+    //
+    // Return the number of columns on the board
+    //
+    public int cols() {
+        return engine_.cols() ;
+    }
+
+    //
+    // Return the number of pieces in a row needed to win the game
+    //
+    public int winLength() {
+        return engine_.winLength() ;
+    }
+
+    //
+    // Return true if the given position is on the board
+    //
+    public boolean isValid(BoardPosition pos) {
+        return pos.isValid(engine_.rows(), engine_.cols()) ;
+    }
+
+    //
+    // Return the total number of squares played so far
+    //
+    public int totalPlayed() {
+        return played_ ;
+    }
+
+    //
+    // Return the number of empty squares
+    //
+    public int emptyCount() {
+        return squares_.length - played_ ;
+    }
+
+    //
+    // Return the position of the square with the given index (row * cols() + col)
+    //
+    public BoardPosition position(int square) {
+        return squares_[square] ;
+    }
+
+    //
+    // Reset the board to all empty
+    //
+    public void clearBoard() {
+        engine_.clear() ;
+        index_ = 0 ;
+        zobrist_ = 0 ;
+        played_ = 0 ;
+    }
+
+    //
+    // Get the game piece type at the given row and column
+    //
+    public GamePiece getPiece(BoardPosition pos) {
+        return engine_.getPiece(computeBoardIndex(pos.Row, pos.Col)) ;
+    }
+
+    //
+    // Get the game piece type at the square with the given index (row * cols() + col)
+    //
+    public GamePiece getPiece(int square) {
+        return engine_.getPiece(square) ;
+    }
+
+    //
+    // Set the game piece type at the given row and column
+    //
+    public void setPiece(BoardPosition pos, GamePiece gp) {
+        setPiece(computeBoardIndex(pos.Row, pos.Col), gp) ;
+    }
+
+    //
+    // Set the game piece type at the square with the given index (row * cols() + col)
+    //
+    public void setPiece(int square, GamePiece gp) {
+        assert engine_.getPiece(square) == GamePiece.EMPTY ;
+        engine_.setPiece(square, gp) ;
+
+        if (square < MaxIndexedSquares) {
+            index_ += Pow3[square] * digit(gp) ;
+        }
+
+        if (gp != GamePiece.EMPTY) {
+            zobrist_ ^= zobristKeys_[square * 2 + digit(gp) - 1] ;
+            played_++ ;
+        }
+    }
+
+    //
+    // Return the Zobrist key of the board.  The key is the exclusive or of a random 64 bit
+    // value for each piece on the board.  It is updated with a single exclusive or each time a
+    // piece is placed, and the empty board has the key zero, so clearing the board resets it in
+    // constant time.  Boards with different pieces almost always have different keys, which makes
+    // the key a good hash for caches and search tables on boards of any size.
+    //
+    public long zobristKey() {
+        return zobrist_ ;
+    }
+
+    //
+    // Return the number of different indexes a board of the given size can have, which
+    // is 3 to the power of the number of squares
+    //
+    // Arguments:
+    //    squares - the number of squares on the board
+    //
+    public static int indexCount(int squares) throws IllegalArgumentException {
+        if (squares > MaxIndexedSquares) {
+            throw new IllegalArgumentException("a board with " + squares + " squares is too large to have an index") ;
+        }
+
+        return Pow3[squares] ;
+    }
+
+    //
+    // Return the index of the board.  Each square is a base 3 digit (0 for empty, 1 for X
+    // and 2 for O) and the square with index N (row * cols() + col) is the digit for 3 to the
+    // power N.  Every board has a different index, so the index is a perfect hash that can be
+    // used to look up information about a board in an array.  The index is kept up to date as
+    // pieces are placed, so this is a single field read.  The classic board has 3^9 = 19683
+    // different indexes.
+    //
+    public int encode() throws IllegalStateException {
+        if (engine_.rows() * engine_.cols() > MaxIndexedSquares) {
+            throw new IllegalStateException("the board is too large to have an index") ;
+        }
+
+        return index_ ;
+    }
+
+    //
+    // Set the board to the pieces described by an index returned from encode()
+    //
+    // Arguments:
+    //    index - the index of the board
+    //
+    public void decode(int index) throws IllegalArgumentException {
+        int squares = engine_.rows() * engine_.cols() ;
+        if (index < 0 || index >= indexCount(squares)) {
+            throw new IllegalArgumentException("the value " + index + " is not a valid board index") ;
+        }
+
+        clearBoard() ;
+        for(int square = 0 ; square < squares ; square++) {
+            GamePiece gp = piece(index % 3) ;
+            if (gp != GamePiece.EMPTY) {
+                setPiece(squares_[square], gp) ;
+            }
+            index /= 3 ;
+        }
+    }
+
+    //
+    // Return the symmetries of the board, or null if the board is not square or has more
+    // than 64 squares
+    //
+    public Symmetry symmetry() {
+        return symmetry_ ;
+    }
+
+    //
+    // Return the transform (see Symmetry) that turns this board into its canonical form.  Every
+    // board that is a rotation or reflection of this board has the same canonical form.
+    //
+    public int canonicalTransform() throws IllegalStateException {
+        if (symmetry_ == null) {
+            throw new IllegalStateException("only square boards have symmetries") ;
+        }
+
+        return symmetry_.canonical(engine_.getMask(GamePiece.X), engine_.getMask(GamePiece.O)) ;
+    }
+
+    //
+    // Return the index (see encode()) of the canonical form of this board.  Caches keyed on
+    // this index store one entry for all of the rotations and reflections of a board.  A move
+    // found for the canonical board is mapped back to this board with
+    // symmetry().invert(canonicalTransform(), square).
+    //
+    public int canonicalIndex() throws IllegalStateException {
+        int t = canonicalTransform() ;
+        long x = symmetry_.applyMask(t, engine_.getMask(GamePiece.X)) ;
+        long o = symmetry_.applyMask(t, engine_.getMask(GamePiece.O)) ;
+
+        if (engine_.rows() * engine_.cols() > MaxIndexedSquares) {
+            throw new IllegalStateException("the board is too large to have an index") ;
+        }
+
+        int index = 0 ;
+        for(long bits = x ; bits != 0 ; bits &= bits - 1) {
+            index += Pow3[Long.numberOfTrailingZeros(bits)] ;
+        }
+        for(long bits = o ; bits != 0 ; bits &= bits - 1) {
+            index += 2 * Pow3[Long.numberOfTrailingZeros(bits)] ;
+        }
+
+        return index ;
+    }
+
+    //
+    // Return the base 3 digit used for a game piece in a board index
+    //
+    public static int digit(GamePiece gp) {
+        return (gp == GamePiece.X) ? 1 : (gp == GamePiece.O) ? 2 : 0 ;
+    }
+
+    //
+    // Return the game piece for a base 3 digit in a board index
+    //
+    public static GamePiece piece(int digit) {
+        return (digit == 1) ? GamePiece.X : (digit == 2) ? GamePiece.O : GamePiece.EMPTY ;
+    }
+
+    //
+    // Return a bit mask of the squares holding the given game piece, or of the empty
+    // squares if EMPTY is given.  Bit N of the mask is the square at row N / cols() and
+    // column N % cols().  This is only available on boards with 64 or fewer squares.
+    //
+    public long getMask(GamePiece p) throws IllegalStateException {
+        return engine_.getMask(p) ;
+    }
+
+    //
+    // Return the list of empty locations on the board.  This is used by
+    // clients that want to know what spots are empty.  With this method clients
+    // don't have to iterate over the board and create a list of empty spots.
+    //
+    public List<BoardPosition> findEmpty() {
+        List<BoardPosition> ret = new ArrayList<BoardPosition>() ;
+         
+        for(int square = 0 ; square < squares_.length ; square++) {
+            if (engine_.getPiece(square) == GamePiece.EMPTY) {
+                ret.add(squares_[square]) ;
+            }
+        }
+
+        return ret;
+    }
+
+    //
+    // Fill an array with the indexes of the empty squares, so clients that play many
+    // moves can reuse one array rather than create a list for every move
+    //
+    // Arguments:
+    //    squares - filled in with the empty squares, must hold at least emptyCount() entries
+    //
+    // Returns the number of empty squares
+    //
+    public int findEmpty(int [] squares) {
+        int count = 0 ;
+        for(int square = 0 ; square < squares_.length ; square++) {
+            if (engine_.getPiece(square) == GamePiece.EMPTY) {
+                squares[count++] = square ;
+            }
+        }
+
+        return count ;
+    }
+
+    //
+    // Return the index of the nth empty square, counting from zero in square order.  On
+    // boards of 64 squares or less the empty squares are found from the bit mask.
+    //
+    // Arguments:
+    //    n - which empty square, less than emptyCount()
+    //
+    public int nthEmpty(int n) {
+        if (squares_.length <= 64) {
+            long empty = engine_.getMask(GamePiece.EMPTY) ;
+            for( ; n > 0 ; n--) {
+                empty &= empty - 1 ;
+            }
+            return Long.numberOfTrailingZeros(empty) ;
+        }
+
+        for(int square = 0 ; square < squares_.length ; square++) {
+            if (engine_.getPiece(square) == GamePiece.EMPTY && n-- == 0) {
+                return square ;
+            }
+        }
+
+        throw new IllegalArgumentException("there are not " + (n + 1) + " empty squares on the board") ;
+    }
+
+    //
+    // Find any of the rows, columns, or diagnols where the game piece given fills all but
+    // one square (two squares on the classic board) and the last square is empty.  This is a
+    // row, column, or diagnol where either we could win or we need to block.
+    //
+    public BoardPosition hasTwo(GamePiece p) {
+        int index = findTwo(p) ;
+        if (index == -1)
+            return null ;
+
+        return squares_[index] ;
+    }
+
+    //
+    // Find a line where the game piece given needs one more square, like hasTwo(), and
+    // return the index of the empty square in the line, or -1 if there is no such line
+    //
+    public int findTwo(GamePiece p) {
+        return engine_.findTwo(p) ;
+    }
+
+    //
+    // Determine if anyone has won the game.  If not one has won
+    // null is returned.  If someone has won, the GameWonInfo is returned
+    // providing information about who won and where they won.  The same GameWonInfo is
+    // returned every time a game ends the same way.
+    //
+    public GameWonInfo hasWon() {
+        GameWonInfo ret = null ;
+
+        int line = engine_.winningLine() ;
+        if (line != -1) {
+            BoardPosition [] where = engine_.lineSquares(line) ;
+            GamePiece who = getPiece(where[0]) ;
+            int which = line * 2 + digit(who) - 1 ;
+            ret = won_[which] ;
+            if (ret == null) {
+                ret = new GameWonInfo(who, where) ;
+                won_[which] = ret ;
+            }
+        }
+        else if (played_ == squares_.length) {
+            //
+            // There are no emptry squared
+            //
+            ret = tied_ ;
+        }
+
+        return ret ;
+    }
+
+    //
+    // Return the number of the line that won the game, or -1 if no one has won.  The
+    // line numbers are the ones the board engine uses.
+    //
+    public int winningLine() {
+        return engine_.winningLine() ;
+    }
+
+    //
+    // Compute the index into the board engine given a row and column.  The
+    // row and column values are zero based.
+    //
+    private int computeBoardIndex(int row, int col) {
+        return row * engine_.cols() + col ;
+    }
+}
@@ -1,13 +1,42 @@
-public class BoardPosition {
-    public final int Row ;
-    public final int Col ;
-
-    public BoardPosition(int row, int col) {
-        this.Row = row ;
-        this.Col = col ;
-    }
-
-    public boolean isValid() {
-        return Row >= 0 && Row <= 2 && Col >= 0 && Col <=2 ;
-    }
-}
+//
+// A row and column on the board.  Positions never change, so the same object can be used
+// for every board and every game.  Use of() rather than the constructor to get the shared
+// position for the square, so playing a move does not create a new object.
+//
+public class BoardPosition {
+    //
+    // The shared positions are kept for rows and columns below this size
+    //
+    private static final int CachedSide = 32 ;
+
+    private static final BoardPosition [] Cache = new BoardPosition[CachedSide * CachedSide] ;
+
+    static {
+        for(int i = 0 ; i < Cache.length ; i++) {
+            Cache[i] = new BoardPosition(i / CachedSide, i % CachedSide) ;
+        }
+    }
+
+    public final int Row ;
+    public final int Col ;
+
+    public BoardPosition(int row, int col) {
+        this.Row = row ;
+        this.Col = col ;
+    }
+
+    //
+    // Return the shared position for a row and column.  A new position is only created for
+    // a square outside the cached rows and columns.
+    //
+    public static BoardPosition of(int row, int col) {
+        if (row >= 0 && row < CachedSide && col >= 0 && col < CachedSide)
+            return Cache[row * CachedSide + col] ;
+
+        return new BoardPosition(row, col) ;
+    }
+
+    public boolean isValid(int rows, int cols) {
+        return Row >= 0 && Row < rows && Col >= 0 && Col < cols ;
+    }
+}
@@ -0,0 +1,307 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+//
+// A load test for the GameServer.  It opens many connections at once from one thread with
+// one NIO selector, and each connection plays random moves against a computer player on the
+// server, one game after another, until the time is up.  At the end it prints the number of
+// games (sessions) per second and the round trip time of the moves, from sending a move to
+// getting the server's reply.
+//
+public class BotClient {
+    private final Selector selector_ ;              // The selector for all of the connections
+    private final String type_ ;                    // The computer player to play against
+    private final GamePiece piece_ ;                // The piece the bots play
+    private final SplittableRandom random_ ;        // Picks the bot moves
+    private final LatencyHistogram rtt_ ;           // The round trip time of the moves
+    private long games_ ;                           // The number of games finished
+    private long moves_ ;                           // The number of moves sent
+    private boolean stopping_ ;                     // If true, no new games are started
+    private int open_ ;                             // The number of connections still open
+
+    //
+    // The state of one bot connection
+    //
+    private static class Bot {
+        private final SocketChannel channel_ ;
+        private final ByteBuffer in_ = ByteBuffer.allocate(256) ;
+        private final ByteBuffer out_ = ByteBuffer.allocate(256) ;
+        private int squares_ ;                      // The number of squares on the board, 0 until the H message
+        private long filled_ ;                      // The squares played in the current game
+        private long sent_ ;                        // The time the last move was sent
+
+        Bot(SocketChannel channel) {
+            channel_ = channel ;
+        }
+    }
+
+    //
+    // Create the load test
+    //
+    // Arguments:
+    //    type - the computer player type to play against
+    //    piece - the piece the bots play
+    //    seed - the seed for the bot moves
+    //
+    public BotClient(String type, GamePiece piece, long seed) throws IOException {
+        selector_ = Selector.open() ;
+        type_ = type ;
+        piece_ = piece ;
+        random_ = new SplittableRandom(seed) ;
+        rtt_ = new LatencyHistogram() ;
+    }
+
+    //
+    // Run the load test
+    //
+    // Arguments:
+    //    address - the server
+    //    connections - the number of connections to open
+    //    millis - how long to play for
+    //
+    public void run(InetSocketAddress address, int connections, long millis) throws IOException {
+        for(int i = 0 ; i < connections ; i++) {
+            SocketChannel channel = SocketChannel.open() ;
+            channel.configureBlocking(false) ;
+            channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, true) ;
+            channel.connect(address) ;
+            channel.register(selector_, SelectionKey.OP_CONNECT, new Bot(channel)) ;
+            open_++ ;
+        }
+
+        long end = System.nanoTime() + millis * 1000000L ;
+        while (open_ > 0) {
+            if (!stopping_ && System.nanoTime() >= end) {
+                stopping_ = true ;
+            }
+
+            selector_.select(100) ;
+            Iterator<SelectionKey> keys = selector_.selectedKeys().iterator() ;
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next() ;
+                keys.remove() ;
+
+                Bot bot = (Bot)key.attachment() ;
+                try {
+                    if (key.isConnectable()) {
+                        bot.channel_.finishConnect() ;
+                        key.interestOps(SelectionKey.OP_READ) ;
+                    }
+                    else if (key.isReadable()) {
+                        read(key, bot) ;
+                    }
+                }
+                catch(IOException ex) {
+                    System.err.println("a connection failed - " + ex.getMessage()) ;
+                    close(key) ;
+                }
+            }
+        }
+    }
+
+    //
+    // Read the messages from the server and answer each one
+    //
+    private void read(SelectionKey key, Bot bot) throws IOException {
+        if (bot.channel_.read(bot.in_) < 0) {
+            close(key) ;
+            return ;
+        }
+
+        bot.in_.flip() ;
+        int start = bot.in_.position() ;
+        for(int i = start ; i < bot.in_.limit() ; i++) {
+            if (bot.in_.get(i) == '\n') {
+                handle(key, bot, start, i) ;
+                start = i + 1 ;
+            }
+        }
+        bot.in_.position(start) ;
+        bot.in_.compact() ;
+
+        if (key.isValid() && bot.out_.position() > 0) {
+            bot.out_.flip() ;
+            while (bot.out_.hasRemaining()) {
+                bot.channel_.write(bot.out_) ;
+            }
+            bot.out_.clear() ;
+        }
+    }
+
+    //
+    // Handle one message from the server
+    //
+    private void handle(SelectionKey key, Bot bot, int start, int end) {
+        byte command = bot.in_.get(start) ;
+
+        if (command == 'H') {
+            String [] words = new String(bot.in_.array(), start, end - start, StandardCharsets.US_ASCII).split(" ") ;
+            bot.squares_ = Integer.parseInt(words[1]) * Integer.parseInt(words[2]) ;
+            if (bot.squares_ > 64) {
+                System.err.println("the bots can only play on boards with up to 64 squares") ;
+                close(key) ;
+                return ;
+            }
+            newGame(key, bot) ;
+        }
+        else if (command == 'S' || command == 'M') {
+            if (command == 'M') {
+                rtt_.record(System.nanoTime() - bot.sent_) ;
+            }
+
+            int square = GameServer.parseInt(bot.in_, start + 1, end) ;
+            if (square >= 0) {
+                bot.filled_ |= 1L << square ;
+            }
+            move(bot) ;
+        }
+        else if (command == 'E') {
+            rtt_.record(System.nanoTime() - bot.sent_) ;
+            games_++ ;
+            newGame(key, bot) ;
+        }
+        else {
+            System.err.println("the server refused a message - " + new String(bot.in_.array(), start, end - start, StandardCharsets.US_ASCII)) ;
+            close(key) ;
+        }
+    }
+
+    //
+    // Start a new game, or close the connection if the time is up
+    //
+    private void newGame(SelectionKey key, Bot bot) {
+        if (stopping_) {
+            bot.out_.put("Q\n".getBytes(StandardCharsets.US_ASCII)) ;
+            bot.out_.flip() ;
+            try {
+                bot.channel_.write(bot.out_) ;
+            }
+            catch(IOException ex) {
+            }
+            bot.out_.clear() ;
+            close(key) ;
+            return ;
+        }
+
+        bot.filled_ = 0 ;
+        bot.out_.put((byte)'N').put((byte)' ').put((byte)(piece_ == GamePiece.X ? 'X' : 'O')).put((byte)' ') ;
+        bot.out_.put(type_.getBytes(StandardCharsets.US_ASCII)).put((byte)'\n') ;
+    }
+
+    //
+    // Play a random empty square
+    //
+    private void move(Bot bot) {
+        int empty = bot.squares_ - Long.bitCount(bot.filled_) ;
+        int which = random_.nextInt(empty) ;
+
+        int square = 0 ;
+        for( ; square < bot.squares_ ; square++) {
+            if ((bot.filled_ & (1L << square)) == 0 && which-- == 0)
+                break ;
+        }
+
+        bot.filled_ |= 1L << square ;
+        bot.out_.put((byte)'M').put((byte)' ') ;
+        if (square >= 10) {
+            bot.out_.put((byte)('0' + square / 10)) ;
+        }
+        bot.out_.put((byte)('0' + square % 10)).put((byte)'\n') ;
+
+        moves_++ ;
+        bot.sent_ = System.nanoTime() ;
+    }
+
+    private void close(SelectionKey key) {
+        if (key.isValid()) {
+            open_-- ;
+        }
+
+        key.cancel() ;
+        try {
+            key.channel().close() ;
+        }
+        catch(IOException ex) {
+        }
+    }
+
+    //
+    // Load test a GameServer
+    //
+    // Arguments:
+    //   --host name                ' the server, default localhost
+    //   --port number              ' the server port, default 7777
+    //   --connections number       ' the number of connections playing at once, default 1000
+    //   --seconds number           ' how long to play for, default 10
+    //   --opponent type            ' the computer player on the server, default expert
+    //   --piece X|O                ' the piece the bots play, default X
+    //   --seed number              ' the seed for the bot moves
+    //
+    static public void main(String[] args) {
+        String host = "localhost" ;
+        int port = GameServer.DefaultPort ;
+        int connections = 1000 ;
+        int seconds = 10 ;
+        String type = "expert" ;
+        GamePiece piece = GamePiece.X ;
+        long seed = new SplittableRandom().nextLong() ;
+
+        try {
+            for(int i = 0 ; i < args.length ; i++) {
+                if (args[i].equals("--host") && i < args.length - 1) {
+                    host = args[++i] ;
+                }
+                else if (args[i].equals("--port") && i < args.length - 1) {
+                    port = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--connections") && i < args.length - 1) {
+                    connections = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--seconds") && i < args.length - 1) {
+                    seconds = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--opponent") && i < args.length - 1) {
+                    type = args[++i] ;
+                }
+                else if (args[i].equals("--piece") && i < args.length - 1) {
+                    piece = args[++i].equals("O") ? GamePiece.O : GamePiece.X ;
+                }
+                else if (args[i].equals("--seed") && i < args.length - 1) {
+                    seed = Long.parseLong(args[++i]) ;
+                }
+                else {
+                    System.err.println("usage: BotClient [--host name] [--port n] [--connections n] [--seconds n] [--opponent type] [--piece X|O] [--seed n]") ;
+                    System.exit(1) ;
+                }
+            }
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("a number argument is not valid - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        try {
+            BotClient bots = new BotClient(type, piece, seed) ;
+            long start = System.nanoTime() ;
+            bots.run(new InetSocketAddress(host, port), connections, seconds * 1000L) ;
+            double secs = (System.nanoTime() - start) / 1.0e9 ;
+
+            LatencySummary rtt = bots.rtt_.summary() ;
+            System.out.printf("%d connections, %d games in %.3f seconds, %.0f sessions/sec\n", connections, bots.games_, secs, bots.games_ / secs) ;
+            System.out.printf("%d moves, round trip mean %.1f us, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us\n",
+                                bots.moves_, rtt.getMean() / 1000.0, rtt.getP50() / 1000.0, rtt.getP90() / 1000.0,
+                                rtt.getP99() / 1000.0, rtt.getP999() / 1000.0, rtt.getMax() / 1000.0) ;
+        }
+        catch(IOException ex) {
+            System.err.println("the load test failed - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+}
@@ -1,129 +1,197 @@
-import java.util.List;
-import java.util.Random;
-
-//
-// This class implements a computer player.  The computer player has various skill levels
-// given by a single percentage.  A random number is generated between 0 and 1 and if it is
-// below the computer player percentage, then the computer makes a smart move.  If not, the
-// computer makes a random move.
-//
-// Note all percentages are between 0 and 1.
-//
-// For example, if the computer player percentage is 1.0, then all random numbers will be less
-// than 1.0 and the computer player is an expert.
-//
-// Alternatively, if the computer player percentage is 0.3, then the computer player will make a
-// smart move only 30% of the time and this player is a novice.
-//
-public class ComputerPlayer extends Player {
-    private Random r_ ;                             // The random number generator for this player
-    private double choose_best_ ;                   // The percentage below which the best move is chosen
-
-    //
-    // Create the computer player
-    //
-    // Arguments:
-    //    p - X or O for this player
-    //    best - below this percentage and the computer makes its best move
-    //
-    public ComputerPlayer(GamePiece p, double best) throws IllegalArgumentException {
-        super(p) ;
-
-        r_ = new Random() ;
-        choose_best_ = best ;
-    }
-
-    //
-    // Returns if the player requires the board to be shown before its move.
-    // A computer player does not.
-    //
-    public boolean showBoard() {
-        return false ;
-    }
-
-    //
-    // Compute the next move for the computer player
-    //
-    // Arguments:
-    //    board - the board to evalute for the next move
-    //
-    public BoardPosition nextMove(Board board) {
-        BoardPosition ret = null ;
-
-        double r = r_.nextDouble() ;
-        if (r <= choose_best_) {
-            //
-            ret = smartMove(board) ;
-        }
-        else {
-            ret = randomMove(board) ;
-        }
-
-        return ret ;
-    }
-
-    //
-    // Compute a smart move by the computer player
-    //
-    // Arguments:
-    //    board - the board to evaluate for the move
-    //
-    private BoardPosition smartMove(Board board) {
-        BoardPosition pos = null ;
-
-        //
-        // Quick strategy evaluation.  If other player went first and the
-        // middle is open, grab it.
-        //
-        if (board.totalPlayed() == 1 && board.getPiece(new BoardPosition(1, 1)) != GamePiece.EMPTY) {
-            pos = new BoardPosition(0, 0) ;
-            return pos ;
-        }
-
-        //
-        // TODO: If we really want a smart player, we need to add more special cases in here.
-        //
-
-        //
-        // Look for a move that wins the game
-        //
-        pos = board.hasTwo(getMyGamePiece()) ;
-        if (pos != null)
-            return pos ;
-
-        //
-        // Look for a move that blocks the opponent
-        //
-        pos = board.hasTwo(getOpponentGamePiece()) ;
-        if (pos != null)
-            return pos ;
-
-        //
-        // Pick a random place to play
-        //
-        List<BoardPosition> spots = board.findEmpty() ;
-        int which = r_.nextInt(spots.size()) ;
-        return spots.get(which) ;       
-    }
-
-    //
-    // Pick a random move on the board
-    //
-    // Arguments:
-    //    board - the board to evaluate
-    //
-    private BoardPosition randomMove(Board board) {
-        //
-        // Ask the board for a list of open slots
-        //
-        List<BoardPosition> spots = board.findEmpty() ;
-
-        //
-        // Pick on of them at random
-        //
-        int which = r_.nextInt(spots.size()) ;
-
-        
-        return spots.get(which) ;
-    }
-}
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+//
+// This class implements a computer player.  The computer player has various skill levels
+// given by a single percentage.  A random number is generated between 0 and 1 and if it is
+// below the computer player percentage, then the computer makes a smart move.  If not, the
+// computer makes a random move.
+//
+// Note all percentages are between 0 and 1.
+//
+// For example, if the computer player percentage is 1.0, then all random numbers will be less
+// than 1.0 and the computer player is an expert.
+//
+// Alternatively, if the computer player percentage is 0.3, then the computer player will make a
+// smart move only 30% of the time and this player is a novice.
+//
+public class ComputerPlayer extends Player {
+    private Random r_ ;                             // The random number generator for this player, null to use the thread's own
+    private double choose_best_ ;                   // The percentage below which the best move is chosen
+    private boolean smart_ ;                        // True if the last move was a smart move, for the Move event (never set when shared)
+
+    //
+    // Create the computer player
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    best - below this percentage and the computer makes its best move
+    //
+    public ComputerPlayer(GamePiece p, double best) throws IllegalArgumentException {
+        super(p) ;
+
+        r_ = new Random() ;
+        choose_best_ = best ;
+    }
+
+    //
+    // Create the computer player with a seed for its random number generator, so
+    // the same seed always gives the same games
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    best - below this percentage and the computer makes its best move
+    //    seed - the seed for the random number generator
+    //
+    public ComputerPlayer(GamePiece p, double best, long seed) throws IllegalArgumentException {
+        super(p) ;
+
+        r_ = new Random(seed) ;
+        choose_best_ = best ;
+    }
+
+    //
+    // Create a computer player that many threads can use at once.  Each thread draws its
+    // random numbers from its own ThreadLocalRandom, so the threads never wait on each other
+    // and the player does not need a lock.  The games can't be repeated with a seed.
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    best - below this percentage and the computer makes its best move
+    //
+    public static ComputerPlayer shared(GamePiece p, double best) throws IllegalArgumentException {
+        ComputerPlayer ret = new ComputerPlayer(p, best, 0) ;
+        ret.r_ = null ;
+        return ret ;
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // Compute the next move for the computer player
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        return board.position(nextSquare(board)) ;
+    }
+
+    //
+    // Compute the next move for the computer player as the index of the square to play
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        int ret = -1 ;
+
+        double r = random().nextDouble() ;
+        boolean smart = (r <= choose_best_) ;
+        if (r_ != null) {
+            smart_ = smart ;
+        }
+
+        if (smart) {
+            //
+            ret = smartMove(board) ;
+        }
+        else {
+            ret = randomMove(board) ;
+        }
+
+        return ret ;
+    }
+
+    //
+    // Only a player made with shared() can be used by many threads at once
+    //
+    public boolean isShareable() {
+        return r_ == null ;
+    }
+
+    //
+    // Return true if the last move was a smart move and false if it was a random move.  The
+    // GameMgr adds this to the Java Flight Recorder Move event.  A player made with shared()
+    // makes moves for many threads at once, so it has no last move and does not keep one.
+    //
+    public boolean lastMoveSmart() throws IllegalStateException {
+        if (r_ == null) {
+            throw new IllegalStateException("a shared computer player does not know which kind of move was last") ;
+        }
+
+        return smart_ ;
+    }
+
+    //
+    // Compute a smart move by the computer player
+    //
+    // Arguments:
+    //    board - the board to evaluate for the move
+    //
+    private int smartMove(Board board) {
+        int square = -1 ;
+
+        //
+        // Quick strategy evaluation.  If other player went first and took the
+        // middle, take the square diagonally next to it (the corner on the classic board).
+        //
+        int midrow = board.rows() / 2 ;
+        int midcol = board.cols() / 2 ;
+        if (board.totalPlayed() == 1 && midrow > 0 && midcol > 0 && board.getPiece(midrow * board.cols() + midcol) != GamePiece.EMPTY) {
+            square = (midrow - 1) * board.cols() + midcol - 1 ;
+            return square ;
+        }
+
+        //
+        // TODO: If we really want a smart player, we need to add more special cases in here.
+        //
+
+        //
+        // Look for a move that wins the game
+        //
+        square = board.findTwo(getMyGamePiece()) ;
+        if (square != -1)
+            return square ;
+
+        //
+        // Look for a move that blocks the opponent
+        //
+        square = board.findTwo(getOpponentGamePiece()) ;
+        if (square != -1)
+            return square ;
+
+        //
+        // Pick a random place to play
+        //
+        return randomMove(board) ;
+    }
+
+    //
+    // Return the random number generator for the thread making the move
+    //
+    private Random random() {
+        return (r_ != null) ? r_ : ThreadLocalRandom.current() ;
+    }
+
+    //
+    // Pick a random move on the board
+    //
+    // Arguments:
+    //    board - the board to evaluate
+    //
+    private int randomMove(Board board) {
+        //
+        // Pick one of the open slots at random.  The board finds the slot without
+        // creating a list of them.
+        //
+        int which = random().nextInt(board.emptyCount()) ;
+        return board.nthEmpty(which) ;
+    }
+}
@@ -1,154 +1,221 @@
-import java.util.Scanner;
-
-//
-// A very dump console display that implements the IDisplay interface
-//
-public class ConsoleDisplay implements IDisplay {
-    private Scanner sc_ ;                               // Scanner for human player input
-
-    //
-    // Create the display
-    //
-    public ConsoleDisplay() {
-        sc_ = new Scanner(System.in);
-    }
-
-    //
-    // Show who won (or tied) by printing a message to the console
-    //
-    // Arguments:
-    //    info - information about who won and where
-    //
-    public void showWon(Board.GameWonInfo info, Board board) {
-        if (info.who == GamePiece.EMPTY) {
-            System.out.println("  It was a tie") ;
-        }
-        else {
-            System.out.println("  Player '" + info.toString() + "' won");
-        }
-    }
-
-    //
-    // Show the current total number of games won and tied by printing a message
-    // to the console.  Note, the done value is false for all but the last game.  If you
-    // only want to show the total at the end of all games, this value can be used to
-    // determine this case.
-    //    
-    // Arguments:
-    //    done - if true, all games requested are done, if false, we are in the middle of the games
-    //    xwon - the number of games won by X
-    //    owon - the number of games won by O
-    //    tied - the number of games that were tied
-    //
-    public void showTotal(boolean done, int xwon, int owon, int tied) {
-        if (done) {
-            System.out.println("------------------------------------------------------------") ;
-            System.out.printf("X: %d, O: %d, tied: %d\n", xwon, owon, tied);
-        }
-    }
-
-    //
-    // Get the next move
-    //
-    // Arguments:
-    //    board - the board to evaluate
-    //
-    public BoardPosition getMove(Board b) {
-        BoardPosition pos = null ;
-
-        while (true) {
-            //
-            // Print a message prompting the user
-            //
-            System.out.print("Enter row and column for you move (seperated by a space): ");
-            try {
-                //
-                // Get the row and column
-                //
-                int row = sc_.nextInt() ;
-                int col = sc_.nextInt() ;
-
-                pos = new BoardPosition(row, col) ;
-                break ;
-            }
-            catch(Exception ex) {
-                System.out.println("The input you provided was invalid.") ;
-                sc_.nextLine();
-                continue ;
-            }
-        }   
-
-        return pos ;
-    }
-
-    //
-    // Print a message stating we are starting a new game
-    //
-    // Arguments:
-    //    which - which game are we on (1 - N)
-    //    count - the total number of games requested
-    //    
-    public void newGame(int which, int count) {
-        System.out.println("Game " + which + " of " + count);
-    }
-
-    //
-    // If true, this tells the GameMgr that we want to updated the board
-    // on every move. We return false so the board is only updated when a 
-    // player wants it updated.
-    //
-    public boolean alwaysUpdateBoard() {
-        return false ;
-    }
-
-    //
-    // Display a message to the user
-    //
-    // Arguments:
-    //    msg - the message to display
-    //
-    public void displayMessage(String msg) {
-        System.out.println(msg) ;
-    }
-
-    //
-    // Update the board display to reflect state of the board given.  The strategy
-    // for this display module is to just print the new board contents.
-    //
-    // Arguments:
-    //    b - object reflecting the current state of the board
-    //
-    public void updateBoardDisplay(Board b) {
-        System.out.println("        col") ;
-        System.out.println("     0   1   2") ;
-        System.out.println("row") ;
-        for(int row = 0 ; row < 3 ; row++) {
-            if (row == 1 || row == 2) {
-                System.out.println("    -----------") ;
-            }
-            System.out.printf("%-4d", row) ;
-            for(int col = 0 ; col < 3 ; col++) {
-                if (col != 0) {
-                    System.out.print("|") ;
-                }
-
-                String str = "   " ;
-                switch(b.getPiece(new BoardPosition(row, col)))
-                {
-                    case X:
-                        str = " X " ;
-                        break ;
-                    case O:
-                        str = " O " ;
-                        break;
-                    case EMPTY:
-                        str = "   " ;
-                        break ;
-                }
-
-                System.out.print(str) ;
-            }
-            System.out.println() ;
-        }
-    }
-}
+import java.util.Scanner;
+
+//
+// A very dump console display that implements the IDisplay interface
+//
+// The output is collected in one buffer and written to the console with a single print and
+// flush, rather than a call to System.out for every piece of every board.  When a human is
+// playing the buffer is written after every board and always before asking for a move.  When
+// only computers are playing it is written once per game.
+//
+public class ConsoleDisplay implements IDisplay {
+    private Scanner sc_ ;                               // Scanner for human player input
+    private final boolean interactive_ ;                // If true, a human is playing so every board is written as it is drawn
+    private final StringBuilder out_ ;                  // The output not yet written to the console
+    private int cols_ ;                                 // The number of columns the header and divider were built for
+    private String header_ ;                            // The column numbers above the board
+    private String divider_ ;                           // The line between the rows of the board
+
+    //
+    // Create the display
+    //
+    // Arguments:
+    //    interactive - true if a human is playing, so the output is written after every board
+    //
+    public ConsoleDisplay(boolean interactive) {
+        sc_ = new Scanner(System.in);
+        interactive_ = interactive ;
+        out_ = new StringBuilder(4096) ;
+        cols_ = -1 ;
+    }
+
+    //
+    // Show who won (or tied) by printing a message to the console
+    //
+    // Arguments:
+    //    info - information about who won and where
+    //
+    public void showWon(Board.GameWonInfo info, Board board) {
+        if (info.who == GamePiece.EMPTY) {
+            out_.append("  It was a tie\n") ;
+        }
+        else {
+            out_.append("  Player '").append(info.who.toString()).append("' won\n") ;
+        }
+
+        //
+        // This is the end of the game, so the output is written even when no human is playing
+        //
+        flush() ;
+    }
+
+    //
+    // Show the current total number of games won and tied by printing a message
+    // to the console.  Note, the done value is false for all but the last game.  If you
+    // only want to show the total at the end of all games, this value can be used to
+    // determine this case.
+    //    
+    // Arguments:
+    //    done - if true, all games requested are done, if false, we are in the middle of the games
+    //    xwon - the number of games won by X
+    //    owon - the number of games won by O
+    //    tied - the number of games that were tied
+    //
+    public void showTotal(boolean done, int xwon, int owon, int tied) {
+        if (done) {
+            out_.append("------------------------------------------------------------\n") ;
+            out_.append("X: ").append(xwon).append(", O: ").append(owon).append(", tied: ").append(tied).append('\n') ;
+            flush() ;
+        }
+    }
+
+    //
+    // Get the next move
+    //
+    // Arguments:
+    //    board - the board to evaluate
+    //
+    public BoardPosition getMove(Board b) {
+        BoardPosition pos = null ;
+
+        while (true) {
+            //
+            // Print a message prompting the user, everything is written before waiting for the input
+            //
+            out_.append("Enter row and column for you move (seperated by a space): ") ;
+            flush() ;
+            try {
+                //
+                // Get the row and column
+                //
+                int row = sc_.nextInt() ;
+                int col = sc_.nextInt() ;
+
+                pos = BoardPosition.of(row, col) ;
+
+                if (b.isValid(pos))
+                    break ;
+
+                out_.append("The row must be between 0 and ").append(b.rows() - 1).append(" and the column between 0 and ").append(b.cols() - 1).append('\n') ;
+            }
+            catch(Exception ex) {
+                out_.append("The input you provided was invalid.\n") ;
+                sc_.nextLine();
+                continue ;
+            }
+        }   
+
+        return pos ;
+    }
+
+    //
+    // Print a message stating we are starting a new game
+    //
+    // Arguments:
+    //    which - which game are we on (1 - N)
+    //    count - the total number of games requested
+    //    
+    public void newGame(int which, int count) {
+        out_.append("Game ").append(which).append(" of ").append(count).append('\n') ;
+    }
+
+    //
+    // If true, this tells the GameMgr that we want to updated the board
+    // on every move. We return false so the board is only updated when a 
+    // player wants it updated.
+    //
+    public boolean alwaysUpdateBoard() {
+        return false ;
+    }
+
+    //
+    // Display a message to the user
+    //
+    // Arguments:
+    //    msg - the message to display
+    //
+    public void displayMessage(String msg) {
+        out_.append(msg).append('\n') ;
+        if (interactive_) {
+            flush() ;
+        }
+    }
+
+    //
+    // Update the board display to reflect state of the board given.  The strategy
+    // for this display module is to just print the new board contents.
+    //
+    // Arguments:
+    //    b - object reflecting the current state of the board
+    //
+    public void updateBoardDisplay(Board b) {
+        if (cols_ != b.cols()) {
+            StringBuilder header = new StringBuilder("    ") ;
+            StringBuilder divider = new StringBuilder("    ") ;
+            for(int col = 0 ; col < b.cols() ; col++) {
+                header.append(String.format(" %-3d", col)) ;
+                divider.append((col == 0) ? "---" : "----") ;
+            }
+
+            cols_ = b.cols() ;
+            header_ = header.toString().stripTrailing() ;
+            divider_ = divider.toString() ;
+        }
+
+        out_.append("        col\n") ;
+        out_.append(header_).append('\n') ;
+        out_.append("row\n") ;
+        for(int row = 0 ; row < b.rows() ; row++) {
+            if (row != 0) {
+                out_.append(divider_).append('\n') ;
+            }
+
+            //
+            // The row number, left justified in 4 columns
+            //
+            int start = out_.length() ;
+            out_.append(row) ;
+            while (out_.length() < start + 4) {
+                out_.append(' ') ;
+            }
+
+            for(int col = 0 ; col < b.cols() ; col++) {
+                if (col != 0) {
+                    out_.append('|') ;
+                }
+
+                String str = "   " ;
+                switch(b.getPiece(BoardPosition.of(row, col)))
+                {
+                    case X:
+                        str = " X " ;
+                        break ;
+                    case O:
+                        str = " O " ;
+                        break;
+                    case EMPTY:
+                        str = "   " ;
+                        break ;
+                }
+
+                out_.append(str) ;
+            }
+            out_.append('\n') ;
+        }
+
+        if (interactive_) {
+            flush() ;
+        }
+    }
+
+    //
+    // Write the output collected so far to the console with one print and one flush
+    //
+    private void flush() {
+        if (out_.length() > 0) {
+            System.out.append(out_) ;
+            System.out.flush() ;
+            out_.setLength(0) ;
+        }
+    }
+}
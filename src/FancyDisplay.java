@@ -1,382 +1,563 @@
-import java.util.Scanner;
-
-//
-// A fancy display (motivated by Hollister) that uses ANSI
-// escape codes to provide for a better looking display.
-//
-// The following web page will explain ANSI control codes in more
-// detail.
-//
-// https://en.wikipedia.org/wiki/ANSI_escape_code
-//
-public class FancyDisplay implements IDisplay {
-    //
-    // The scanner for human input when needed
-    //
-    private Scanner sc_ ;
-
-    //
-    // Stored values for the number of games won and tied.  This is
-    // required because we want to show at a point in time other than when
-    // the showTotal() method is called.  In showTotal() we just store the 
-    // values and then display them when we update the board display.
-    //
-    private int xwon_ ;
-    private int owon_ ;
-    private int tied_ ;
-
-    //
-    // A set of ANSI control coles
-    //
-    private final String cls_ = "\033[2J";                      // Clear the screen
-    private final String gotopos_ = "\033[%d;%dH" ;             // Goto row and column (all 1 based, not 0)
-    private final String clearline_ = "\033[2K" ;               // Clear the complete line the cursor is on
-    private final String green_ = "\033[0;32m" ;                // Display all subsequent text as green
-    private final String blue_ = "\033[0;34m" ;                 // Display all subsequent text as blue
-    private final String white_ = "\033[0;37m" ;                // Display all subsequent text as white
-    private final String yellow_ = "\033[1;33m" ;               // Display all subsequent text as yellow
-    private final String red_ = "\033[0;31m" ;                  // Display all subsequent text as red
-    private final String hide_ = "\033[?25l" ;
-    private final String show_ = "\033[?25h" ;
-
-    //
-    // Unicode characters for drawing lines
-    //
-    private String horizline = "\u2550" ;
-    private String intersect = "\u256C" ;
-    private String vertline = "\u2551" ;
-
-    //
-    // Create the display object
-    //
-    public FancyDisplay(boolean lines) {
-        //
-        // The scanner for human input
-        //
-        sc_ = new Scanner(System.in);
-
-        xwon_ = 0 ;
-        owon_ = 0 ;
-        tied_ = 0 ;
-
-        if (!lines) {
-            horizline = "=" ;
-            intersect = "=" ;
-            vertline = "|" ;
-        }
-    }
-
-    private void animateTieGame(Board board) {
-        for(int i = 0 ; i < 10 ; i++) {
-            String color ;
-
-            for(int row = 0 ; row < 3 ; row++) {
-                for(int col = 0 ; col < 3 ; col++) {
-                    GamePiece p = board.getPiece(new BoardPosition(row, col));
-                    if ((i % 2) == 0) {
-                        color = yellow_ ;
-                    }
-                    else {
-                        color = blue_ ;
-                        if (p == GamePiece.O)
-                            color = green_ ;                            
-                    }
-
-                    putsquare(row, col, p.toString(), color);
-                }
-            }
-            try {
-                Thread.sleep(150);
-            }
-            catch(Exception ex) {
-            }
-        }
-
-    }
-
-    private void animateWonGame(Board.GameWonInfo info, Board board) {
-        String color ;
-
-        for(int loop = 0 ; loop < 10 ; loop++) {
-            if ((loop % 2) == 0) {
-                color = yellow_ ;
-            }
-            else {
-                color = blue_ ;
-                if (info.who == GamePiece.O)
-                    color = green_ ;                    
-            }
-            for(int i = 0 ; i < info.where.length ; i++) {
-                putsquare(info.where[i].Row, info.where[i].Col, info.who.toString(), color);
-            }
-
-            try {
-                Thread.sleep(150);
-            }
-            catch(Exception ex) {
-            }            
-        }
-    }
-
-    //
-    // Show who won the game (or a tie if that happened)
-    //
-    // Arguments:
-    //    info - the information about who won the game
-    //
-    public void showWon(Board.GameWonInfo info, Board board) {
-        //
-        // If X or O won the game, highlight where they won on the board in yellow
-        //
-        System.out.print(hide_) ; 
-        if (info.who != GamePiece.EMPTY) {
-            animateWonGame(info, board);
-        }
-        else {
-            animateTieGame(board);
-        }
-        System.out.print(show_) ;         
-
-        //
-        // Move down below the board and print what happened (who won)
-        //
-        gotopos(12, 1) ;
-        clearline();
-        if (info.who == GamePiece.EMPTY) {
-            System.out.println("It was a tie") ;
-        }
-        else {
-            System.out.println("Player '" + info.who.toString() + "' won");
-        }
-
-        //
-        // Finally wait for human input before we move to the next game
-        //
-        gotopos(14, 1) ;
-        System.out.println("Hit enter to continue") ;
-
-        //
-        // We call next line twice because the first time will just consume the 
-        // new line from the input where the latest row and column were input.
-        //
-        sc_.nextLine() ;
-        sc_.nextLine() ;
-    }
-
-    //
-    // Show the current total number of games won and tied by printing a message
-    // to the console.  Note, the done value is false for all but the last game.  If you
-    // only want to show the total at the end of all games, this value can be used to
-    // determine this case.
-    //
-    // Here we just store the values as they are displayed else where in the code
-    //    
-    // Arguments:
-    //    done - if true, all games requested are done, if false, we are in the middle of the games
-    //    xwon - the number of games won by X
-    //    owon - the number of games won by O
-    //    tied - the number of games that were tied
-    //
-    public void showTotal(boolean done, int xwon, int owon, int tied) {
-        xwon_ = xwon ;
-        owon_ = owon ;
-        tied_ = tied ;
-    }
-
-    //
-    // Display the stored total wins data that was previously stored.
-    //
-    private void displayTotal() {
-        gotopos(1, 20) ;
-        System.out.printf("X: %d, O: %d, tied: %d\n", xwon_, owon_, tied_);
-    }
-
-    //
-    // Get the next move
-    //
-    // Arguments:
-    //    board - the board to evaluate
-    //
-    public BoardPosition getMove(Board b) {
-        BoardPosition pos = null ;
-
-        while (true) {
-            //
-            // Move the cursor to the line where we get input and clear the line
-            //
-            gotopos(11, 1);
-            clearline() ;
-
-            //
-            // Print a message prompting for new row and column values
-            //
-            System.out.print("Enter row and column for you move (seperated by a space): ");
-            try {
-                //
-                // If the input is good, create the board position object and break out of the loop
-                // to return the value.
-                //
-                int row = sc_.nextInt() ;
-                int col = sc_.nextInt() ;
-
-                pos = new BoardPosition(row, col) ;
-
-                if (pos.isValid())
-                    break; 
-
-                displayMessage("The row and column values must be between 0 and 2");
-            }
-            catch(Exception ex) {
-                //
-                // Display that the data was not good
-                //
-                displayMessage("The input you provided was invalid.") ;
-                sc_.nextLine();
-                continue ;
-            }
-        }   
-        return pos ;
-    }
-
-    //
-    // Clear the screen
-    //
-    private void clear() {
-        System.out.print(cls_);
-    }
-
-    //
-    // Turn all subsequent text white
-    //
-    private void white() {
-        System.out.print(white_) ;
-    }
-
-    //
-    // Turn all subsequent text red
-    //    
-    private void red() {
-        System.out.println(red_);
-    }
-
-    //
-    // Clear the current line (line containing the cursor)
-    //     
-    private void clearline() {
-        System.out.print(clearline_) ;
-    }
-
-    //
-    // Go to the given position on the screen
-    //
-    // Arguments:
-    //    row - the row on the screen, the first row is 1
-    //    col - the column on the screen, the first column is 1
-    //
-    private void gotopos(int row, int col) {
-        String str = String.format(gotopos_, row, col) ;
-        System.out.print(str) ;
-    }
-
-    //
-    // Put a square on the board
-    //
-    // Arguments:
-    //    row - the row on the board, 0 - 2
-    //    col - the column on the board, 0 - 2
-    //    sq - the charcter to draw (either 'X' or 'O')
-    //    color - the color of the character
-    //    
-    private void putsquare(int row, int col, String sq, String color) {
-        gotopos(row * 2 + 5, col * 4 + 6);
-        System.out.print(color) ;
-        System.out.print(sq);
-        white() ;
-    }
-
-    //
-    // Print a message stating we are starting a new game
-    //
-    // Arguments:
-    //    which - which game are we on (1 - N)
-    //    count - the total number of games requested
-    // 
-    public void newGame(int which, int count) {
-        clear() ;
-        gotopos(1, 1) ;
-        System.out.println("Game " + which + " of " + count);
-        inititalBoardDisplay();
-        displayTotal();
-    }
-
-    //
-    // If true, this tells the GameMgr that we want to updated the board
-    // on every move. We return true so the display is updated every turn
-    //    
-    public boolean alwaysUpdateBoard() {
-        return false ;
-    }
-
-    //
-    // Display a message to the user.  Row 13 is for user messages.  New user messages will
-    // overwrite previous user messages but this is ok for this game.
-    //
-    // Arguments:
-    //    msg - the message to display
-    //    
-    public void displayMessage(String msg) {
-        gotopos(13, 1) ;
-        clearline() ;
-        red() ;
-        System.out.println(msg) ;
-        white() ;
-    }
-
-    //
-    // Update the board display to reflect state of the board given.  The strategy
-    // for this display class is to just update the any of the nine squares that contain
-    // game pieces.
-    //
-    // Arguments:
-    //    b - object reflecting the current state of the board
-    //
-    public void updateBoardDisplay(Board b) {
-        for(int row = 0 ; row < 3 ; row++) {
-            for(int col = 0 ; col < 3 ; col++) {
-                GamePiece p = b.getPiece(new BoardPosition(row, col)) ;
-                if (p != GamePiece.EMPTY) {
-                    String color = blue_ ;
-                    if (p == GamePiece.O)
-                        color = green_ ;
-                    putsquare(row, col, p.toString(), color) ;
-                }
-            }
-        }
-    }
-
-    //
-    // Draw the initial board on the screen at the start of a new game
-    // after the screen is cleared.
-    //
-    private void inititalBoardDisplay() {
-        String horizsq = horizline + horizline + horizline  ;
-        String horiz = "    " + horizsq + intersect + horizsq + intersect + horizsq ;
-        System.out.println("        col") ;
-        System.out.println("     0   1   2") ;
-        System.out.println("row") ;
-        for(int row = 0 ; row < 3 ; row++) {
-            if (row == 1 || row == 2) {
-                System.out.println(horiz) ;
-            }
-            System.out.printf("%-4d", row) ;
-            for(int col = 0 ; col < 3 ; col++) {
-                if (col != 0) {
-                    System.out.print(vertline) ;
-                }
-                System.out.print("   ") ;
-            }
-
-            System.out.println() ;
-        }
-    }    
-}
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+//
+// A fancy display (motivated by Hollister) that uses ANSI
+// escape codes to provide for a better looking display.
+//
+// The following web page will explain ANSI control codes in more
+// detail.
+//
+// https://en.wikipedia.org/wiki/ANSI_escape_code
+//
+// Everything drawn is collected in one frame buffer and written to the screen with a single
+// print and flush.  The escape sequences that move the cursor to each square are built once when
+// the display is created, and a shadow copy of what is in each square on the screen means only
+// the squares that changed are drawn again.
+//
+// The squares of a finished game flash on a render thread, so the game loop never waits for
+// the animation.  Starting the next game cancels the animation if it is still running.
+//
+public class FancyDisplay implements IDisplay {
+    //
+    // The scanner for human input when needed
+    //
+    private Scanner sc_ ;
+
+    //
+    // Stored values for the number of games won and tied.  This is
+    // required because we want to show at a point in time other than when
+    // the showTotal() method is called.  In showTotal() we just store the 
+    // values and then display them when we update the board display.
+    //
+    private int xwon_ ;
+    private int owon_ ;
+    private int tied_ ;
+
+    //
+    // The size of the board, and the screen row just below the board where the
+    // input prompt and the messages are displayed
+    //
+    private int rows_ ;
+    private int cols_ ;
+    private int msgrow_ ;
+
+    //
+    // The frame being built, what is on the screen in each square, and the color the
+    // terminal will be set to when the frame is written
+    //
+    private final StringBuilder frame_ ;
+    private final GamePiece [] shownPiece_ ;
+    private final String [] shownColor_ ;
+    private String color_ ;
+
+    //
+    // The animation of the last game is run by a scheduled task on its own thread
+    //
+    private static final int AnimationSteps = 10 ;
+    private static final long AnimationStep = 150 ;             // The time between steps in milliseconds
+    private final ScheduledExecutorService renderer_ ;
+    private final boolean pause_ ;                              // If true, wait for enter after each game
+    private final double maxRate_ ;                             // Above this many games a second there is no animation, 0 for no limit
+    private Animation animation_ ;                              // The animation running, or null
+    private long lastWon_ ;                                     // The time the last game ended
+    private long interval_ ;                                    // The smoothed time between games in nanoseconds
+
+    //
+    // A set of ANSI control coles
+    //
+    private final String cls_ = "\033[2J";                      // Clear the screen
+    private final String gotopos_ = "\033[%d;%dH" ;             // Goto row and column (all 1 based, not 0)
+    private final String gotoHome_ = "\033[1;1H" ;              // Goto the first row and column
+    private final String clearline_ = "\033[2K" ;               // Clear the complete line the cursor is on
+    private final String green_ = "\033[0;32m" ;                // Display all subsequent text as green
+    private final String blue_ = "\033[0;34m" ;                 // Display all subsequent text as blue
+    private final String white_ = "\033[0;37m" ;                // Display all subsequent text as white
+    private final String yellow_ = "\033[1;33m" ;               // Display all subsequent text as yellow
+    private final String red_ = "\033[0;31m" ;                  // Display all subsequent text as red
+    private final String hide_ = "\033[?25l" ;
+    private final String show_ = "\033[?25h" ;
+
+    //
+    // The escape sequences and text that never change, built when the display is created
+    //
+    private final String [] squarepos_ ;                        // Goto each square, indexed by row * cols + col
+    private final String msgpos_ ;                              // Goto the input prompt row
+    private final String wonpos_ ;                              // Goto the row for who won the game
+    private final String userpos_ ;                             // Goto the row for user messages
+    private final String enterpos_ ;                            // Goto the row for the hit enter prompt
+    private final String totalpos_ ;                            // Goto the place for the total games won
+    private final String boardText_ ;                           // The empty board
+
+    //
+    // Unicode characters for drawing lines
+    //
+    private String horizline = "\u2550" ;
+    private String intersect = "\u256C" ;
+    private String vertline = "\u2551" ;
+
+    //
+    // Create the display object
+    //
+    // Arguments:
+    //    lines - if true, draw the board with unicode line art
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    pause - if true, wait for the user to hit enter after each game
+    //    maxRate - the games per second above which the end of game animation is skipped, 0 for no limit
+    //
+    public FancyDisplay(boolean lines, int rows, int cols, boolean pause, double maxRate) {
+        //
+        // The scanner for human input
+        //
+        sc_ = new Scanner(System.in);
+
+        xwon_ = 0 ;
+        owon_ = 0 ;
+        tied_ = 0 ;
+
+        rows_ = rows ;
+        cols_ = cols ;
+        msgrow_ = rows * 2 + 5 ;
+
+        if (!lines) {
+            horizline = "=" ;
+            intersect = "=" ;
+            vertline = "|" ;
+        }
+
+        frame_ = new StringBuilder(4096) ;
+        shownPiece_ = new GamePiece[rows * cols] ;
+        shownColor_ = new String[rows * cols] ;
+        color_ = white_ ;
+
+        squarepos_ = new String[rows * cols] ;
+        for(int row = 0 ; row < rows ; row++) {
+            for(int col = 0 ; col < cols ; col++) {
+                squarepos_[row * cols + col] = String.format(gotopos_, row * 2 + 5, col * 4 + 6) ;
+            }
+        }
+        msgpos_ = String.format(gotopos_, msgrow_, 1) ;
+        wonpos_ = String.format(gotopos_, msgrow_ + 1, 1) ;
+        userpos_ = String.format(gotopos_, msgrow_ + 2, 1) ;
+        enterpos_ = String.format(gotopos_, msgrow_ + 3, 1) ;
+        totalpos_ = String.format(gotopos_, 1, 20) ;
+        boardText_ = initialBoardText() ;
+
+        pause_ = pause ;
+        maxRate_ = maxRate ;
+        lastWon_ = System.nanoTime() ;
+        renderer_ = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fancy-render") ;
+            t.setDaemon(true) ;
+            return t ;
+        }) ;
+    }
+
+    //
+    // This class flashes the squares of a finished game on the render thread.  Each step
+    // is drawn as one frame, 150ms apart, and the last step leaves the pieces in their normal
+    // colors.  The game loop does not wait for it.  A new game cancels it.
+    //
+    private class Animation implements Runnable {
+        private final Board.GameWonInfo info_ ;     // Who won the game and where
+        private final GamePiece [] pieces_ ;        // The pieces on the board when the game ended
+        private ScheduledFuture<?> future_ ;        // The scheduled steps, used to cancel them
+        private int step_ ;                         // The next step to draw
+
+        Animation(Board.GameWonInfo info, Board board) {
+            info_ = info ;
+            pieces_ = new GamePiece[rows_ * cols_] ;
+            for(int row = 0 ; row < rows_ ; row++) {
+                for(int col = 0 ; col < cols_ ; col++) {
+                    pieces_[row * cols_ + col] = board.getPiece(BoardPosition.of(row, col)) ;
+                }
+            }
+        }
+
+        public void run() {
+            synchronized(FancyDisplay.this) {
+                if (animation_ != this)
+                    return ;
+
+                if (info_.who != GamePiece.EMPTY) {
+                    animateWonGame(info_, step_) ;
+                }
+                else {
+                    animateTieGame(pieces_, step_) ;
+                }
+
+                step_++ ;
+                if (step_ == AnimationSteps) {
+                    stopAnimation() ;
+                }
+                flush() ;
+            }
+        }
+    }
+
+    //
+    // Draw one step of the animation for a tie game, every square flashes
+    //
+    private void animateTieGame(GamePiece [] pieces, int step) {
+        String color ;
+
+        for(int row = 0 ; row < rows_ ; row++) {
+            for(int col = 0 ; col < cols_ ; col++) {
+                GamePiece p = pieces[row * cols_ + col] ;
+                if ((step % 2) == 0) {
+                    color = yellow_ ;
+                }
+                else {
+                    color = blue_ ;
+                    if (p == GamePiece.O)
+                        color = green_ ;                            
+                }
+
+                putsquare(row, col, p, color);
+            }
+        }
+    }
+
+    //
+    // Draw one step of the animation for a won game, the winning squares flash
+    //
+    private void animateWonGame(Board.GameWonInfo info, int step) {
+        String color ;
+
+        if ((step % 2) == 0) {
+            color = yellow_ ;
+        }
+        else {
+            color = blue_ ;
+            if (info.who == GamePiece.O)
+                color = green_ ;                    
+        }
+        for(int i = 0 ; i < info.where.length ; i++) {
+            putsquare(info.where[i].Row, info.where[i].Col, info.who, color);
+        }
+    }
+
+    //
+    // Stop the animation that is running, if any, and show the cursor again.  The caller
+    // must hold the lock on the display.
+    //
+    private void stopAnimation() {
+        if (animation_ != null) {
+            animation_.future_.cancel(false) ;
+            animation_ = null ;
+            frame_.append(show_) ;
+            notifyAll() ;
+        }
+    }
+
+    //
+    // Return true if the games are finishing faster than the animation rate limit, so
+    // there is no animation
+    //
+    private boolean tooFast() {
+        long now = System.nanoTime() ;
+        long interval = now - lastWon_ ;
+        lastWon_ = now ;
+
+        //
+        // The time between games is smoothed so one slow game does not turn the animations
+        // back on
+        //
+        interval_ = (interval_ == 0) ? interval : (interval_ * 3 + interval) / 4 ;
+        return maxRate_ > 0 && interval_ * maxRate_ < 1000000000L ;
+    }
+
+    //
+    // Show who won the game (or a tie if that happened).  The winning squares are flashed
+    // on the render thread, so this returns as soon as the result is shown.
+    //
+    // Arguments:
+    //    info - the information about who won the game
+    //
+    public void showWon(Board.GameWonInfo info, Board board) {
+        synchronized(this) {
+            //
+            // If X or O won the game, highlight where they won on the board in yellow
+            //
+            stopAnimation() ;
+            if (!tooFast()) {
+                frame_.append(hide_) ;
+                animation_ = new Animation(info, board) ;
+                animation_.future_ = renderer_.scheduleAtFixedRate(animation_, 0, AnimationStep, TimeUnit.MILLISECONDS) ;
+            }
+
+            //
+            // Move down below the board and print what happened (who won)
+            //
+            frame_.append(wonpos_).append(clearline_) ;
+            if (info.who == GamePiece.EMPTY) {
+                frame_.append("It was a tie\n") ;
+            }
+            else {
+                frame_.append("Player '").append(info.who.toString()).append("' won\n") ;
+            }
+
+            if (pause_) {
+                frame_.append(enterpos_).append("Hit enter to continue\n") ;
+            }
+            flush() ;
+        }
+
+        //
+        // Finally wait for human input before we move to the next game
+        //
+        if (pause_) {
+            //
+            // We call next line twice because the first time will just consume the 
+            // new line from the input where the latest row and column were input.
+            //
+            sc_.nextLine() ;
+            sc_.nextLine() ;
+        }
+    }
+
+    //
+    // Show the current total number of games won and tied by printing a message
+    // to the console.  Note, the done value is false for all but the last game.  If you
+    // only want to show the total at the end of all games, this value can be used to
+    // determine this case.
+    //
+    // Here we just store the values as they are displayed else where in the code
+    //    
+    // Arguments:
+    //    done - if true, all games requested are done, if false, we are in the middle of the games
+    //    xwon - the number of games won by X
+    //    owon - the number of games won by O
+    //    tied - the number of games that were tied
+    //
+    public synchronized void showTotal(boolean done, int xwon, int owon, int tied) {
+        xwon_ = xwon ;
+        owon_ = owon ;
+        tied_ = tied ;
+
+        //
+        // Let the animation of the last game finish before the program ends
+        //
+        while (done && animation_ != null) {
+            try {
+                wait() ;
+            }
+            catch(InterruptedException ex) {
+                Thread.currentThread().interrupt() ;
+                return ;
+            }
+        }
+    }
+
+    //
+    // Display the stored total wins data that was previously stored.
+    //
+    private void displayTotal() {
+        frame_.append(totalpos_).append("X: ").append(xwon_).append(", O: ").append(owon_).append(", tied: ").append(tied_).append('\n') ;
+    }
+
+    //
+    // Get the next move
+    //
+    // Arguments:
+    //    board - the board to evaluate
+    //
+    public BoardPosition getMove(Board b) {
+        BoardPosition pos = null ;
+
+        while (true) {
+            //
+            // Move the cursor to the line where we get input and clear the line
+            //
+            synchronized(this) {
+                frame_.append(msgpos_).append(clearline_) ;
+
+                //
+                // Print a message prompting for new row and column values, the frame is written
+                // before waiting for the input
+                //
+                frame_.append("Enter row and column for you move (seperated by a space): ") ;
+                flush() ;
+            }
+            try {
+                //
+                // If the input is good, create the board position object and break out of the loop
+                // to return the value.
+                //
+                int row = sc_.nextInt() ;
+                int col = sc_.nextInt() ;
+
+                pos = BoardPosition.of(row, col) ;
+
+                if (b.isValid(pos))
+                    break; 
+
+                displayMessage("The row must be between 0 and " + (b.rows() - 1) + " and the column between 0 and " + (b.cols() - 1));
+            }
+            catch(Exception ex) {
+                //
+                // Display that the data was not good
+                //
+                displayMessage("The input you provided was invalid.") ;
+                sc_.nextLine();
+                continue ;
+            }
+        }   
+        return pos ;
+    }
+
+    //
+    // Set the color of the text that follows.  The escape sequence is only added to the
+    // frame when the color changes.
+    //
+    // Arguments:
+    //    color - the escape sequence for the color
+    //
+    private void color(String color) {
+        if (color != color_) {
+            frame_.append(color) ;
+            color_ = color ;
+        }
+    }
+
+    //
+    // Write the frame to the screen with one print and one flush, leaving the text white
+    //
+    private void flush() {
+        color(white_) ;
+        if (frame_.length() > 0) {
+            System.out.append(frame_) ;
+            System.out.flush() ;
+            frame_.setLength(0) ;
+        }
+    }
+
+    //
+    // Put a square on the board.  Nothing is added to the frame if the square already shows
+    // the same piece in the same color.
+    //
+    // Arguments:
+    //    row - the row on the board, starting at 0
+    //    col - the column on the board, starting at 0
+    //    p - the piece to draw (either X or O)
+    //    color - the color of the piece
+    //    
+    private void putsquare(int row, int col, GamePiece p, String color) {
+        int index = row * cols_ + col ;
+        if (shownPiece_[index] == p && shownColor_[index] == color)
+            return ;
+
+        shownPiece_[index] = p ;
+        shownColor_[index] = color ;
+
+        frame_.append(squarepos_[index]) ;
+        color(color) ;
+        frame_.append(p.toString()) ;
+    }
+
+    //
+    // Print a message stating we are starting a new game
+    //
+    // Arguments:
+    //    which - which game are we on (1 - N)
+    //    count - the total number of games requested
+    // 
+    public synchronized void newGame(int which, int count) {
+        stopAnimation() ;
+        Arrays.fill(shownPiece_, GamePiece.EMPTY) ;
+        Arrays.fill(shownColor_, null) ;
+
+        frame_.append(cls_).append(gotoHome_).append("Game ").append(which).append(" of ").append(count).append('\n') ;
+        frame_.append(boardText_) ;
+        displayTotal();
+        flush() ;
+    }
+
+    //
+    // If true, this tells the GameMgr that we want to updated the board
+    // on every move. We return true so the display is updated every turn
+    //    
+    public boolean alwaysUpdateBoard() {
+        return false ;
+    }
+
+    //
+    // Display a message to the user.  The row two below the input prompt is for user messages.  New user messages will
+    // overwrite previous user messages but this is ok for this game.
+    //
+    // Arguments:
+    //    msg - the message to display
+    //    
+    public synchronized void displayMessage(String msg) {
+        frame_.append(userpos_).append(clearline_) ;
+        color(red_) ;
+        frame_.append(msg).append('\n') ;
+        flush() ;
+    }
+
+    //
+    // Update the board display to reflect state of the board given.  The strategy
+    // for this display class is to just update the any of the squares that contain
+    // game pieces and have changed since they were last drawn.
+    //
+    // Arguments:
+    //    b - object reflecting the current state of the board
+    //
+    public synchronized void updateBoardDisplay(Board b) {
+        for(int row = 0 ; row < b.rows() ; row++) {
+            for(int col = 0 ; col < b.cols() ; col++) {
+                GamePiece p = b.getPiece(BoardPosition.of(row, col)) ;
+                if (p != GamePiece.EMPTY) {
+                    String color = blue_ ;
+                    if (p == GamePiece.O)
+                        color = green_ ;
+                    putsquare(row, col, p, color) ;
+                }
+            }
+        }
+        flush() ;
+    }
+
+    //
+    // Return the text of the empty board that is drawn at the start of a new game
+    // after the screen is cleared.
+    //
+    private String initialBoardText() {
+        String horizsq = horizline + horizline + horizline  ;
+        StringBuilder header = new StringBuilder("    ") ;
+        StringBuilder horiz = new StringBuilder("    ") ;
+        for(int col = 0 ; col < cols_ ; col++) {
+            header.append(String.format(" %-3d", col)) ;
+            if (col != 0) {
+                horiz.append(intersect) ;
+            }
+            horiz.append(horizsq) ;
+        }
+
+        StringBuilder text = new StringBuilder() ;
+        text.append("        col\n") ;
+        text.append(header.toString().stripTrailing()).append('\n') ;
+        text.append("row\n") ;
+        for(int row = 0 ; row < rows_ ; row++) {
+            if (row != 0) {
+                text.append(horiz).append('\n') ;
+            }
+            text.append(String.format("%-4d", row)) ;
+            for(int col = 0 ; col < cols_ ; col++) {
+                if (col != 0) {
+                    text.append(vertline) ;
+                }
+                text.append("   ") ;
+            }
+
+            text.append('\n') ;
+        }
+
+        return text.toString() ;
+    }    
+}
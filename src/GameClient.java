@@ -0,0 +1,161 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+//
+// A client for a human to play games on a GameServer.  The board is drawn with the console
+// display and the moves are read from the keyboard just like a local game.  The client keeps
+// its own copy of the board, playing its own moves and the moves the server sends back.
+//
+public class GameClient {
+    private final BufferedReader in_ ;              // The messages from the server
+    private final PrintWriter out_ ;                // The messages to the server
+    private final Board board_ ;                    // The client's copy of the board
+    private final IDisplay display_ ;               // The display for the games
+    private final Player me_ ;                      // The human playing on this client
+    private final GamePiece them_ ;                 // The piece the server plays
+
+    //
+    // Create the client and read the size of the board from the server
+    //
+    // Arguments:
+    //    socket - the connection to the server
+    //    piece - the piece the human plays
+    //
+    public GameClient(Socket socket, GamePiece piece) throws IllegalArgumentException, IOException {
+        in_ = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)) ;
+        out_ = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII) ;
+
+        String [] hello = expect('H') ;
+        board_ = Board.create(Integer.parseInt(hello[1]), Integer.parseInt(hello[2]), Integer.parseInt(hello[3])) ;
+
+        display_ = new ConsoleDisplay(true) ;
+        me_ = new HumanPlayer(piece) ;
+        me_.setDisplay(display_) ;
+        them_ = me_.getOpponentGamePiece() ;
+    }
+
+    //
+    // Play a game against a computer player on the server
+    //
+    // Arguments:
+    //    type - the type of the computer player
+    //
+    // Returns who won the game, EMPTY for a tie
+    //
+    public GamePiece play(String type) throws IOException {
+        board_.clearBoard() ;
+        out_.println("N " + me_.getMyGamePiece() + " " + type) ;
+
+        String [] reply = expect('S') ;
+        while (true) {
+            int square = Integer.parseInt(reply[reply.length - 1]) ;
+            if (square >= 0) {
+                board_.setPiece(square, them_) ;
+            }
+
+            if (reply[0].equals("E")) {
+                display_.updateBoardDisplay(board_) ;
+                GamePiece winner = reply[1].equals("X") ? GamePiece.X : reply[1].equals("O") ? GamePiece.O : GamePiece.EMPTY ;
+                display_.displayMessage((winner == GamePiece.EMPTY) ? "It was a tie" : "Player '" + winner + "' won") ;
+                return winner ;
+            }
+
+            display_.updateBoardDisplay(board_) ;
+            BoardPosition pos = me_.nextMove(board_) ;
+            board_.setPiece(pos, me_.getMyGamePiece()) ;
+            out_.println("M " + (pos.Row * board_.cols() + pos.Col)) ;
+
+            reply = expect('M') ;
+        }
+    }
+
+    //
+    // Read the next message from the server.  The end of a game can arrive in place of the
+    // expected message.
+    //
+    private String [] expect(char command) throws IOException {
+        String line = in_.readLine() ;
+        if (line == null) {
+            throw new IOException("the server closed the connection") ;
+        }
+
+        String [] words = line.split(" ") ;
+        if (words[0].equals("R")) {
+            throw new IllegalArgumentException("the server refused the message - " + line.substring(1).trim()) ;
+        }
+
+        if (!words[0].equals(String.valueOf(command)) && !words[0].equals("E")) {
+            throw new IOException("unexpected message from the server '" + line + "'") ;
+        }
+
+        return words ;
+    }
+
+    //
+    // Play games against a GameServer
+    //
+    // Arguments:
+    //   --host name                ' the server, default localhost
+    //   --port number              ' the server port, default 7777
+    //   --piece X|O                ' the piece to play, default X
+    //   --opponent type            ' the computer player on the server, default expert
+    //   --count number             ' the number of games, default 1
+    //
+    static public void main(String[] args) {
+        String host = "localhost" ;
+        int port = GameServer.DefaultPort ;
+        GamePiece piece = GamePiece.X ;
+        String type = "expert" ;
+        int count = 1 ;
+
+        try {
+            for(int i = 0 ; i < args.length ; i++) {
+                if (args[i].equals("--host") && i < args.length - 1) {
+                    host = args[++i] ;
+                }
+                else if (args[i].equals("--port") && i < args.length - 1) {
+                    port = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--piece") && i < args.length - 1) {
+                    piece = args[++i].equals("O") ? GamePiece.O : GamePiece.X ;
+                }
+                else if (args[i].equals("--opponent") && i < args.length - 1) {
+                    type = args[++i] ;
+                }
+                else if (args[i].equals("--count") && i < args.length - 1) {
+                    count = Integer.parseInt(args[++i]) ;
+                }
+                else {
+                    System.err.println("usage: GameClient [--host name] [--port n] [--piece X|O] [--opponent type] [--count n]") ;
+                    System.exit(1) ;
+                }
+            }
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("a number argument is not valid - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        try (Socket socket = new Socket(host, port)) {
+            GameClient client = new GameClient(socket, piece) ;
+            int [] won = new int[3] ;
+            for(int game = 0 ; game < count ; game++) {
+                won[Board.digit(client.play(type))]++ ;
+            }
+            client.out_.println("Q") ;
+            client.display_.showTotal(true, won[1], won[2], won[0]) ;
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not play on the server " + host + ":" + port + " - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+}
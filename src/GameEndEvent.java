@@ -0,0 +1,25 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//
+// The Java Flight Recorder event for the end of a game.  The duration of the event is the
+// time the whole game took.
+//
+@Name("tictactoe.GameEnd")
+@Label("Game End")
+@Category("Tic-Tac-Toe")
+@Description("A game has ended, the duration is the time the game took")
+public class GameEndEvent extends jdk.jfr.Event {
+    @Label("Winner")
+    @Description("X, O or EMPTY for a tie")
+    public String winner ;
+
+    @Label("Moves")
+    public int moves ;
+
+    @Label("Winning Line")
+    @Description("The squares of the winning line as row,col pairs, empty for a tie")
+    public String where ;
+}
@@ -1,312 +1,1015 @@
-
-public class GameMgr {
-    private IDisplay display_ ;                 // The display for displaying games
-    private Board board_ ;                      // The data model for the game
-    private Player x_ ;                         // The X player
-    private Player o_ ;                         // The O Player
-    private int xwon_ ;                         // The number of games won by the X player
-    private int owon_ ;                         // The number of games won by the O player
-    private int tied_ ;                         // The number of games tied
-
-    //
-    // Check the player argument given on the command line.  If the argument is valid, create the
-    // player and assign to the right slot in the player array.
-    //
-    // Arguments:
-    //   players - Array that will store the two players to play the game
-    //   index - player 1 (value 0) or player 2 (value 1)
-    //   piece - game piece type (X or O)
-    //   type - player type (human, expert, intermediate, novice)
-    //
-    static private boolean checkPlayer(Player [] players, int index, GamePiece piece, String type) throws IllegalArgumentException{
-        boolean ret = true ;
-
-        if (index != 0 && index != 1) {
-            throw new IllegalArgumentException("internal error - index value '" + index + "' is not valid, must be 0 or 1") ;
-        }
-
-        if (type.equals("human")) {
-            players[index] = new HumanPlayer(piece);
-        }
-        else if (type.equals("novice")) {
-            players[index] = new ComputerPlayer(piece, 0.3);
-        }
-        else if (type.equals("intermediate")) {
-            players[index] = new ComputerPlayer(piece, 0.6);            
-        }
-        else if (type.equals("expert")) {
-            players[index] = new ComputerPlayer(piece, 1.0);
-        }
-        else {
-            System.err.println("'" + type + "' is not a valid player type");
-            ret = false ;
-        }
-
-        return ret ;
-    }
-
-    //
-    // Print help information
-    //
-    static private void help() {
-        System.out.println("Tic-Tac-Toe - the classic game of tic-tac-toe") ;
-        System.out.println("Arguments:") ;
-        System.out.println("  --display displaytype      (console or fancy)") ;
-        System.out.println("  --count integer            (the number of games to play)");
-        System.out.println("  --1 playertype             player type for player one (human, expert, intermediate, novice)");
-        System.out.println("  --2 playertype             player type for player two (human, expert, intermediate, novice)");
-    }
-
-    //
-    // Main entry point for the program.  Processes command line arguments and if all
-    // command line arguments are valid, creates a GameMgr object to play the games.
-    //
-    // Arguments:
-    //   --display displaytype      ' console or fancy
-    //   --count number             ' number of games to play
-    //   --1 playertype             ' human, expert, intermediate, novice
-    //   --2 playertype             ' human, expert, intermediate, novice
-    //   --help                     ' print this information
-    //
-    //
-    static public void main(String[] args) {
-        IDisplay disp = null ;
-        Player[] players = new Player[2];
-        int count = 10 ;                            // The default value is --count is not specified
-        boolean lines = true ;                      // The default if using the fance display is to use line art
-
-        int i = 0 ;
-        //
-        // Process the command line arguments
-        //
-        while (i < args.length) {
-            String arg = args[i] ;
-            if (arg.equals("--display")) {
-                if (i == args.length - 1) {
-                    System.err.println("the --display argument must be followed by the display type");
-                    System.exit(1);
-                }
-
-                if (disp != null) {
-                    System.err.println("the --display argument has already been given, only one per program invocation is allowed");
-                    System.exit(1);                    
-                }
-
-                i++ ;
-                arg = args[i] ;
-                if (arg.equals("fancy")) {
-                    disp = new FancyDisplay(lines);
-                }
-                else if (arg.equals("console")) {
-                    disp = new ConsoleDisplay() ;
-                }
-                else {
-                    System.err.println("'" + arg + "' is not a valid display type");
-                    System.exit(1);                     
-                }
-            }
-            else if (arg.equals("--1")) {
-                if (i == args.length - 1) {
-                    System.err.println("the --1 argument must be followed by a player type");
-                    System.exit(1);
-                }
-                i++ ;
-                if (!checkPlayer(players, 0, GamePiece.X, args[i])) {
-                    System.exit(1) ;
-                }
-            }
-            else if (arg.equals("--2")) {
-                if (i == args.length - 1) {
-                    System.err.println("the --2 argument must be followed by a player type");
-                    System.exit(1);
-                }
-                i++ ;
-                if (!checkPlayer(players, 1, GamePiece.O, args[i])) {
-                    System.exit(1) ;
-                }
-            }
-            else if (arg.equals("--count")) {
-                if (i == args.length - 1) {
-                    System.err.println("the --count argument must be followed by an integer value (e.g. --count 200)");
-                    System.exit(1);
-                }
-                i++ ;
-                try {
-                    count = Integer.parseInt(args[i]) ;
-                }
-                catch(NumberFormatException ex) {
-                    System.err.println("the value '" + args[i] + "' following the --count argument is not a valid integer");
-                    System.exit(1);                    
-                }
-            }
-            else if (arg.equals("--no-lines")) {
-                lines = false ;
-            }
-            else if (arg.equals("--help")) {
-                help() ;
-                System.exit(0);
-            }
-            else {
-                    System.err.println("the argument '" + arg + "'is not a valid argument") ;
-                    help() ;
-                    System.exit(1);                
-            }
-            i++ ;
-        }
-
-        if (players[0] == null) {
-            System.err.println("the --1 argument specifying the type of player for player one is required and was not given");
-            System.exit(1);            
-        }
-
-        if (players[0] == null) {
-            System.err.println("the --2 argument specifying the type of player for player two is required and was not given");
-            System.exit(1);            
-        }
-
-        if (disp == null) {
-            disp = new ConsoleDisplay() ;
-            disp.displayMessage("The --disp argument was not given, assuming a 'console' display");
-        }
-
-        GameMgr mgr = new GameMgr(disp, players[0], players[1]) ;
-        mgr.play(count) ;
-    }
-
-    //
-    // Create a GameMgr object to play the tic-tac-toe game
-    //
-    // Arguments:
-    //   count - the number of games to play
-    //   x - the first player (using X game piece)
-    //   o - the second player (using the O game piece)
-    //
-    private GameMgr(IDisplay display, Player x, Player o) {
-        this.display_ = display ;
-        this.x_ = x ;
-        this.o_ = o ;
-        this.board_ = new Board();
-
-        this.x_.setDisplay(display) ;
-        this.o_.setDisplay(display);
-    }
-
-    //
-    // Play a single game of tic-tac-toe
-    // We return information about who won the game
-    //
-    private Board.GameWonInfo playOneGame() {
-        Board.GameWonInfo info = null ;
-        Player who = x_ ;                       // The curret player, alternates between x_ and o_
-        board_.clearBoard();                    // Clear the board for a new game
-
-        while (true) {
-            //
-            // If the player needs to see the board (human player) display it
-            //
-            if (who.showBoard() || display_.alwaysUpdateBoard()) {
-                display_.updateBoardDisplay(board_);
-            }
-
-            //
-            // Ask the player for their next move.  Note, the
-            // board is passed in because the player classes store no state information
-            // about the game.  The player class is asked to look at the current state of the board
-            // and decide what move to make.
-            //
-            BoardPosition pos = who.nextMove(board_) ;
-
-            //
-            // Set the square in the board.
-            //
-            board_.setPiece(pos, who.getMyGamePiece());
-
-            info = board_.hasWon() ;
-            if (info != null) {
-                //
-                // Someone won or the board is full and its a tie, break out of the game loop
-                //
-                display_.updateBoardDisplay(board_);
-                break ;
-            }
-
-            //
-            // Now one has won yet
-            //
-            if (who == x_) {
-                who = o_ ;
-            }
-            else {
-                who = x_ ;
-            }
-        }
-
-        return info ;
-    }
-
-    //
-    // Reset the number of games won and tied
-    //
-    private void resetScore() {
-        xwon_ = 0 ;
-        owon_ = 0 ;
-        tied_ = 0 ;
-    }
-
-    //
-    // Play the series of games requested
-    //
-    private void play(int count) {
-        int which = 0 ;                 // This counts which game we are on
-
-        //
-        // Reset the number of games won and tied to zero
-        //
-        resetScore() ;
-
-        while (which < count) {
-            // 
-            // Display the face we are starting a new game
-            //
-            display_.newGame(which + 1, count);
-
-            //
-            // Place the game
-            //
-            Board.GameWonInfo info = playOneGame() ;
-
-            //
-            // Increment the number of games we have played
-            //
-            which++ ;
-
-            //
-            // Keep track of the number won and tied 
-            //
-            if (info.who == GamePiece.X) {
-                xwon_++ ;
-            }
-            else if (info.who == GamePiece.O) {
-                owon_++ ;
-            }
-            else {
-                tied_++ ;
-            }
-
-            //
-            // Show who won the game
-            //
-            display_.showWon(info, board_) ;
-
-            //
-            // Show total games won and tied
-            //
-            display_.showTotal(false, xwon_, owon_, tied_);            
-        }
-
-        //
-        // Show total games won and tied
-        //
-        display_.showTotal(true, xwon_, owon_, tied_);
-    }
-}
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.JMException;
+
+public class GameMgr {
+    private IDisplay display_ ;                 // The display for displaying games
+    private boolean headless_ ;                 // If true, nothing is displayed so the display is never called
+    private Board board_ ;                      // The data model for the game
+    private Player x_ ;                         // The X player
+    private Player o_ ;                         // The O Player
+    private String xtype_ ;                     // The type of the X player, for the flight recorder events
+    private String otype_ ;                     // The type of the O player, for the flight recorder events
+    private int xwon_ ;                         // The number of games won by the X player
+    private int owon_ ;                         // The number of games won by the O player
+    private int tied_ ;                         // The number of games tied
+    private LatencyHistogram xtimes_ ;          // The times of the X moves while benchmarking, otherwise null
+    private LatencyHistogram otimes_ ;          // The times of the O moves while benchmarking, otherwise null
+    private GameRecorder recorder_ ;            // The recorder that saves every game, or null
+    private ResultsStore.Appender results_ ;    // The results store appender for this thread, or null
+    private GameStats stats_ ;                  // The live statistics published through JMX, or null
+    private LatencyHistogram xlatency_ ;        // The histogram of X move times in the live statistics
+    private LatencyHistogram olatency_ ;        // The histogram of O move times in the live statistics
+    private LatencyHistogram haswon_ ;          // The histogram of hasWon times in the live statistics
+
+    //
+    // Check the player argument given on the command line.  If the argument is valid, create the
+    // player and assign to the right slot in the player array.
+    //
+    // Arguments:
+    //   players - Array that will store the two players to play the game
+    //   index - player 1 (value 0) or player 2 (value 1)
+    //   piece - game piece type (X or O)
+    //   type - player type (human, perfect, table, tablebase, mcts, expert, intermediate, novice)
+    //   factory - the factory that creates the players
+    //   seed - the seed for the random number generator of the player
+    //
+    static private boolean checkPlayer(Player [] players, int index, GamePiece piece, String type, PlayerFactory factory,
+                                       long seed) throws IllegalArgumentException{
+        boolean ret = true ;
+
+        if (index != 0 && index != 1) {
+            throw new IllegalArgumentException("internal error - index value '" + index + "' is not valid, must be 0 or 1") ;
+        }
+
+        if (!PlayerFactory.isValidType(type)) {
+            System.err.println("'" + type + "' is not a valid player type");
+            ret = false ;
+        }
+        else {
+            try {
+                players[index] = factory.create(type, piece, seed) ;
+            }
+            catch(IOException ex) {
+                System.err.println("could not open the tablebase file - " + ex.getMessage()) ;
+                ret = false ;
+            }
+        }
+
+        return ret ;
+    }
+
+    //
+    // Print help information
+    //
+    static private void help() {
+        System.out.println("Tic-Tac-Toe - the classic game of tic-tac-toe") ;
+        System.out.println("Arguments:") ;
+        System.out.println("  --display displaytype      (console, fancy or none)") ;
+        System.out.println("  --count integer            (the number of games to play)");
+        System.out.println("  --1 playertype             player type for player one (human, perfect, table, tablebase, mcts, expert, intermediate, novice)");
+        System.out.println("  --2 playertype             player type for player two (human, perfect, table, tablebase, mcts, expert, intermediate, novice)");
+        System.out.println("  --rows integer             (the number of rows on the board, default 3)");
+        System.out.println("  --cols integer             (the number of columns on the board, default 3)");
+        System.out.println("  --k integer                (the number in a row needed to win, default 3)");
+        System.out.println("  --no-lines                 (draw the fancy display without line art)");
+        System.out.println("  --no-pause                 (the fancy display does not wait for enter after each game)");
+        System.out.println("  --animation-rate integer   (the fancy display skips the end of game animation above this many games a second)");
+        System.out.println("  --mcts-iterations integer  (the number of playouts per move for the mcts player, default 2000)");
+        System.out.println("  --mcts-millis integer      (the time per move in milliseconds for the mcts player, instead of a playout count)");
+        System.out.println("  --bench                    (time the games and report throughput, move latency and allocation)");
+        System.out.println("  --warmup integer           (the number of untimed games played before --bench times the games, default 10000)");
+        System.out.println("  --threads integer          (the number of threads to play the games on, needs --display none)");
+        System.out.println("  --seed long                (the seed for the computer players, so a run can be repeated)");
+        System.out.println("  --record file              (save every game to a game record file, with --threads each thread adds .N to the name)");
+        System.out.println("  --jmx                      (publish live game counts and move times as the JMX MBean " + GameStats.Name + ")");
+        System.out.println("  --metrics port             (serve live statistics in the Prometheus text format on http://localhost:port" + MetricsServer.Context + ")");
+        System.out.println("  --results dir              (add the result of every game to a results store, see ResultsTable for queries)");
+        System.out.println("  --tablebase file           (the tablebase file for the tablebase player, default " + TablebaseSolver.DefaultFile + ")");
+    }
+
+    //
+    // Get the integer value that follows a command line argument.  If the value is missing
+    // or is not a valid integer, an error is printed and the program exits.
+    //
+    // Arguments:
+    //   args - the command line arguments
+    //   i - the index of the argument that is followed by the integer value
+    //   example - an example of the argument and its value for the error message
+    //
+    static private int integerArgument(String [] args, int i, String example) {
+        int ret = 0 ;
+
+        if (i == args.length - 1) {
+            System.err.println("the " + args[i] + " argument must be followed by an integer value (e.g. " + example + ")");
+            System.exit(1);
+        }
+
+        try {
+            ret = Integer.parseInt(args[i + 1]) ;
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("the value '" + args[i + 1] + "' following the " + args[i] + " argument is not a valid integer");
+            System.exit(1);
+        }
+
+        return ret ;
+    }
+
+    //
+    // Get the long value that follows a command line argument.  If the value is missing
+    // or is not a valid long integer, an error is printed and the program exits.
+    //
+    // Arguments:
+    //   args - the command line arguments
+    //   i - the index of the argument that is followed by the long value
+    //   example - an example of the argument and its value for the error message
+    //
+    static private long longArgument(String [] args, int i, String example) {
+        long ret = 0 ;
+
+        if (i == args.length - 1) {
+            System.err.println("the " + args[i] + " argument must be followed by a long integer value (e.g. " + example + ")");
+            System.exit(1);
+        }
+
+        try {
+            ret = Long.parseLong(args[i + 1]) ;
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("the value '" + args[i + 1] + "' following the " + args[i] + " argument is not a valid long integer");
+            System.exit(1);
+        }
+
+        return ret ;
+    }
+
+    //
+    // Main entry point for the program.  Processes command line arguments and if all
+    // command line arguments are valid, creates a GameMgr object to play the games.
+    //
+    // Arguments:
+    //   --display displaytype      ' console, fancy or none
+    //   --count number             ' number of games to play
+    //   --1 playertype             ' human, perfect, table, tablebase, mcts, expert, intermediate, novice
+    //   --2 playertype             ' human, perfect, table, tablebase, mcts, expert, intermediate, novice
+    //   --rows number              ' number of rows on the board
+    //   --cols number              ' number of columns on the board
+    //   --k number                 ' number in a row needed to win
+    //   --no-lines                 ' draw the fancy display without line art
+    //   --no-pause                 ' the fancy display does not wait for enter after each game
+    //   --animation-rate number    ' the fancy display skips animations above this many games a second
+    //   --tablebase file           ' the tablebase file for the tablebase player
+    //   --record file              ' save every game to a game record file
+    //   --results dir              ' add the result of every game to a results store
+    //   --jmx                      ' publish live statistics through a platform MBean
+    //   --metrics port             ' serve live statistics for Prometheus on this port
+    //   --bench                    ' benchmark the games
+    //   --warmup number            ' number of games to play before the benchmark is timed
+    //   --threads number           ' number of threads to play the games on
+    //   --seed number              ' seed for the computer players
+    //   --mcts-iterations number   ' playouts per move for the mcts player
+    //   --mcts-millis number       ' time per move in milliseconds for the mcts player
+    //   --help                     ' print this information
+    //
+    //
+    static public void main(String[] args) {
+        IDisplay disp = null ;
+        String disptype = null ;
+        Player[] players = new Player[2];
+        String [] types = new String[2] ;
+        String tablebase = TablebaseSolver.DefaultFile ;
+        int iterations = 2000 ;                     // The default budget for the mcts player
+        long millis = 0 ;
+        int threads = 1 ;                           // By default all games are played on the main thread
+        boolean bench = false ;
+        int warmup = 10000 ;
+        String record = null ;
+        String results = null ;
+        boolean jmx = false ;
+        int metrics = 0 ;                           // The port for the Prometheus metrics, 0 for none
+        long seed = new SplittableRandom().nextLong() ;   // A random seed unless --seed is given
+        int count = 10 ;                            // The default value is --count is not specified
+        boolean lines = true ;                      // The default if using the fance display is to use line art
+        boolean pause = true ;                      // The fancy display waits for enter after each game
+        int animationRate = 0 ;                     // By default the fancy display always animates
+        int rows = 3 ;                              // The default board is the classic 3x3 board
+        int cols = 3 ;
+        int k = 3 ;
+
+        int i = 0 ;
+        //
+        // Process the command line arguments
+        //
+        while (i < args.length) {
+            String arg = args[i] ;
+            if (arg.equals("--display")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --display argument must be followed by the display type");
+                    System.exit(1);
+                }
+
+                if (disptype != null) {
+                    System.err.println("the --display argument has already been given, only one per program invocation is allowed");
+                    System.exit(1);                    
+                }
+
+                i++ ;
+                disptype = args[i] ;
+                if (!disptype.equals("fancy") && !disptype.equals("console") && !disptype.equals("none")) {
+                    System.err.println("'" + disptype + "' is not a valid display type");
+                    System.exit(1);                     
+                }
+            }
+            else if (arg.equals("--1")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --1 argument must be followed by a player type");
+                    System.exit(1);
+                }
+                i++ ;
+                types[0] = args[i] ;
+            }
+            else if (arg.equals("--2")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --2 argument must be followed by a player type");
+                    System.exit(1);
+                }
+                i++ ;
+                types[1] = args[i] ;
+            }
+            else if (arg.equals("--count")) {
+                count = integerArgument(args, i, "--count 200") ;
+                i++ ;
+            }
+            else if (arg.equals("--rows")) {
+                rows = integerArgument(args, i, "--rows 15") ;
+                i++ ;
+            }
+            else if (arg.equals("--cols")) {
+                cols = integerArgument(args, i, "--cols 15") ;
+                i++ ;
+            }
+            else if (arg.equals("--k")) {
+                k = integerArgument(args, i, "--k 5") ;
+                i++ ;
+            }
+            else if (arg.equals("--mcts-iterations")) {
+                iterations = integerArgument(args, i, "--mcts-iterations 5000") ;
+                i++ ;
+            }
+            else if (arg.equals("--mcts-millis")) {
+                millis = integerArgument(args, i, "--mcts-millis 50") ;
+                iterations = 0 ;
+                i++ ;
+            }
+            else if (arg.equals("--bench")) {
+                bench = true ;
+            }
+            else if (arg.equals("--warmup")) {
+                warmup = integerArgument(args, i, "--warmup 10000") ;
+                i++ ;
+            }
+            else if (arg.equals("--threads")) {
+                threads = integerArgument(args, i, "--threads 8") ;
+                i++ ;
+            }
+            else if (arg.equals("--seed")) {
+                seed = longArgument(args, i, "--seed 5000000000") ;
+                i++ ;
+            }
+            else if (arg.equals("--record")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --record argument must be followed by a file name");
+                    System.exit(1);
+                }
+                i++ ;
+                record = args[i] ;
+            }
+            else if (arg.equals("--jmx")) {
+                jmx = true ;
+            }
+            else if (arg.equals("--metrics")) {
+                metrics = integerArgument(args, i, "--metrics 9400") ;
+                i++ ;
+            }
+            else if (arg.equals("--results")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --results argument must be followed by a directory name");
+                    System.exit(1);
+                }
+                i++ ;
+                results = args[i] ;
+            }
+            else if (arg.equals("--tablebase")) {
+                if (i == args.length - 1) {
+                    System.err.println("the --tablebase argument must be followed by a file name");
+                    System.exit(1);
+                }
+                i++ ;
+                tablebase = args[i] ;
+            }
+            else if (arg.equals("--no-pause")) {
+                pause = false ;
+            }
+            else if (arg.equals("--animation-rate")) {
+                animationRate = integerArgument(args, i, "--animation-rate 2") ;
+                i++ ;
+            }
+            else if (arg.equals("--no-lines")) {
+                lines = false ;
+            }
+            else if (arg.equals("--help")) {
+                help() ;
+                System.exit(0);
+            }
+            else {
+                    System.err.println("the argument '" + arg + "'is not a valid argument") ;
+                    help() ;
+                    System.exit(1);                
+            }
+            i++ ;
+        }
+
+        if (types[0] == null) {
+            System.err.println("the --1 argument specifying the type of player for player one is required and was not given");
+            System.exit(1);            
+        }
+
+        if (types[1] == null) {
+            System.err.println("the --2 argument specifying the type of player for player two is required and was not given");
+            System.exit(1);            
+        }
+
+        PlayerFactory factory = new PlayerFactory(tablebase, iterations, millis) ;
+        SplittableRandom seeds = new SplittableRandom(seed) ;
+        try {
+            if (!checkPlayer(players, 0, GamePiece.X, types[0], factory, seeds.nextLong()) ||
+                        !checkPlayer(players, 1, GamePiece.O, types[1], factory, seeds.nextLong())) {
+                System.exit(1) ;
+            }
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        Board board = null ;
+        try {
+            board = Board.create(rows, cols, k) ;
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        for(int which = 0 ; which < players.length ; which++) {
+            if (!players[which].canPlay(board)) {
+                System.err.println("the '" + types[which] + "' player can't play on a " + rows + "x" + cols + " board with " + k + " in a row") ;
+                System.exit(1) ;
+            }
+        }
+
+        if (bench) {
+            if (threads > 1) {
+                System.err.println("the --bench argument times the games on one thread and can't be used with --threads") ;
+                System.exit(1) ;
+            }
+
+            if (record != null || results != null) {
+                System.err.println("the --bench argument doesn't save the games and can't be used with --record or --results") ;
+                System.exit(1) ;
+            }
+
+            if (jmx || metrics != 0) {
+                System.err.println("the --bench argument reports its own statistics and can't be used with --jmx or --metrics") ;
+                System.exit(1) ;
+            }
+
+            if (disptype != null && !disptype.equals("none")) {
+                System.err.println("the --bench argument doesn't show the games and can only be used with --display none") ;
+                System.exit(1) ;
+            }
+
+            for(int which = 0 ; which < players.length ; which++) {
+                if (players[which] instanceof HumanPlayer) {
+                    System.err.println("a human player can't be benchmarked") ;
+                    System.exit(1) ;
+                }
+            }
+
+            GameMgr mgr = new GameMgr(new NullDisplay(), board, players[0], players[1], types) ;
+            mgr.bench(warmup, count, types) ;
+            return ;
+        }
+
+        //
+        // The console display only writes every board as it is drawn when a human is playing
+        //
+        boolean human = (players[0] instanceof HumanPlayer) || (players[1] instanceof HumanPlayer) ;
+
+        if (disptype == null) {
+            disp = new ConsoleDisplay(human) ;
+            disp.displayMessage("The --disp argument was not given, assuming a 'console' display");
+        }
+        else if (disptype.equals("fancy")) {
+            disp = new FancyDisplay(lines, rows, cols, pause, animationRate) ;
+        }
+        else if (disptype.equals("none")) {
+            for(int which = 0 ; which < players.length ; which++) {
+                if (players[which] instanceof HumanPlayer) {
+                    System.err.println("a human player can't play with the 'none' display") ;
+                    System.exit(1) ;
+                }
+            }
+            disp = new NullDisplay() ;
+        }
+        else {
+            disp = new ConsoleDisplay(human) ;
+        }
+
+        if (threads < 1) {
+            System.err.println("the --threads value must be at least 1") ;
+            System.exit(1) ;
+        }
+
+        GameStats stats = null ;
+        if (jmx || metrics != 0) {
+            stats = new GameStats() ;
+        }
+
+        if (jmx) {
+            try {
+                stats.register() ;
+            }
+            catch(JMException ex) {
+                System.err.println("could not register the JMX MBean - " + ex.getMessage()) ;
+                System.exit(1) ;
+            }
+        }
+
+        MetricsServer server = null ;
+        if (metrics != 0) {
+            try {
+                server = new MetricsServer(metrics, stats) ;
+            }
+            catch(IOException ex) {
+                System.err.println("could not start the metrics server on port " + metrics + " - " + ex.getMessage()) ;
+                System.exit(1) ;
+            }
+        }
+
+        if (threads > 1) {
+            if (!(disp instanceof NullDisplay)) {
+                System.err.println("the --threads argument can only be used with '--display none'") ;
+                System.exit(1) ;
+            }
+
+            playParallel(threads, count, factory, types, rows, cols, k, seeds, seed, record, results, stats) ;
+        }
+        else {
+            playSerial(disp, board, players, types, count, rows, cols, k, seed, record, results, stats) ;
+        }
+
+        if (server != null) {
+            server.stop() ;
+        }
+    }
+
+    //
+    // Play the games on the main thread
+    //
+    // Arguments:
+    //   disp - the display for the games
+    //   board - the board to play the games on
+    //   players - the two players
+    //   types - the player types for player one and player two
+    //   count - the number of games to play
+    //   rows - the number of rows on the board
+    //   cols - the number of columns on the board
+    //   k - the number in a row needed to win
+    //   seed - the seed of the run, saved with the results
+    //   record - the name of the game record file, or null to not record the games
+    //   results - the results store directory, or null to not store the results
+    //   stats - the live statistics, or null
+    //
+    static private void playSerial(IDisplay disp, Board board, Player [] players, String [] types, int count,
+                                   int rows, int cols, int k, long seed, String record, String results, GameStats stats) {
+
+        GameMgr mgr = new GameMgr(disp, board, players[0], players[1], types) ;
+        if (stats != null) {
+            mgr.watch(stats, types) ;
+        }
+        ResultsStore store = null ;
+        try {
+            if (record != null) {
+                mgr.recorder_ = new GameRecorder(Path.of(record), rows, cols, k) ;
+            }
+
+            if (results != null) {
+                store = new ResultsStore(Path.of(results), rows, cols, k) ;
+                mgr.results_ = store.appender(types[0], types[1], seed) ;
+            }
+
+            mgr.play(count) ;
+
+            if (mgr.recorder_ != null) {
+                mgr.recorder_.close() ;
+            }
+
+            if (store != null) {
+                mgr.results_.flush() ;
+                store.close() ;
+            }
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException | UncheckedIOException ex) {
+            System.err.println("could not write the game record or results - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+
+    //
+    // Play the games on several threads at once.  Each thread has its own GameMgr with its own
+    // board and its own players.  The random number generators of the players are seeded from
+    // a split of the main seed so every thread plays different games.  Each thread keeps its own
+    // totals, which are added together when all of the threads are done.
+    //
+    // Arguments:
+    //   threads - the number of threads
+    //   count - the total number of games to play
+    //   factory - the factory that creates the players
+    //   types - the player types for player one and player two
+    //   rows - the number of rows on the board
+    //   cols - the number of columns on the board
+    //   k - the number in a row needed to win
+    //   seeds - the source of the seeds for each thread
+    //   seed - the seed of the run, saved with the results
+    //   record - the name of the game record file, or null to not record the games
+    //   results - the results store directory, or null to not store the results
+    //   stats - the live statistics shared by all of the threads, or null
+    //
+    static private void playParallel(int threads, int count, PlayerFactory factory, String [] types,
+                                     int rows, int cols, int k, SplittableRandom seeds, long seed,
+                                     String record, String results, GameStats stats) {
+        List<GameMgr> mgrs = new ArrayList<GameMgr>() ;
+        List<Callable<Void>> work = new ArrayList<Callable<Void>>() ;
+        ResultsStore store = null ;
+
+        try {
+            if (results != null) {
+                store = new ResultsStore(Path.of(results), rows, cols, k) ;
+            }
+
+            for(int t = 0 ; t < threads ; t++) {
+                SplittableRandom random = seeds.split() ;
+                Player x = factory.create(types[0], GamePiece.X, random.nextLong()) ;
+                Player o = factory.create(types[1], GamePiece.O, random.nextLong()) ;
+                GameMgr mgr = new GameMgr(new NullDisplay(), Board.create(rows, cols, k), x, o, types) ;
+                int games = count / threads + ((t < count % threads) ? 1 : 0) ;
+
+                if (record != null) {
+                    mgr.recorder_ = new GameRecorder(Path.of(record + "." + t), rows, cols, k) ;
+                }
+
+                if (store != null) {
+                    mgr.results_ = store.appender(types[0], types[1], seed) ;
+                }
+
+                if (stats != null) {
+                    mgr.watch(stats, types) ;
+                }
+
+                mgrs.add(mgr) ;
+                work.add(() -> {
+                    mgr.playGames(games) ;
+                    if (mgr.recorder_ != null) {
+                        mgr.recorder_.close() ;
+                    }
+                    if (mgr.results_ != null) {
+                        mgr.results_.flush() ;
+                    }
+                    return null ;
+                }) ;
+            }
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not open a file - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        long start = System.nanoTime() ;
+        ExecutorService pool = Executors.newFixedThreadPool(threads) ;
+        try {
+            for(Future<Void> result : pool.invokeAll(work)) {
+                result.get() ;
+            }
+        }
+        catch(InterruptedException ex) {
+            Thread.currentThread().interrupt() ;
+            System.exit(1) ;
+        }
+        catch(ExecutionException ex) {
+            System.err.println("a game thread failed - " + ex.getCause()) ;
+            System.exit(1) ;
+        }
+        finally {
+            pool.shutdown() ;
+        }
+
+        if (store != null) {
+            try {
+                store.close() ;
+            }
+            catch(IOException ex) {
+                System.err.println("could not close the results store - " + ex.getMessage()) ;
+                System.exit(1) ;
+            }
+        }
+        double secs = (System.nanoTime() - start) / 1.0e9 ;
+
+        long xwon = 0 ;
+        long owon = 0 ;
+        long tied = 0 ;
+        for(GameMgr mgr : mgrs) {
+            xwon += mgr.xwon_ ;
+            owon += mgr.owon_ ;
+            tied += mgr.tied_ ;
+        }
+
+        printTotals(count, secs, xwon, owon, tied) ;
+    }
+
+    //
+    // Print the final totals and the number of games per second for a run with no display
+    //
+    static private void printTotals(int count, double secs, long xwon, long owon, long tied) {
+        System.out.printf("X: %d, O: %d, tied: %d\n", xwon, owon, tied);
+        System.out.printf("%d games in %.3f seconds, %.0f games/sec\n", count, secs, count / secs);
+    }
+
+    //
+    // Create a GameMgr object to play the tic-tac-toe game
+    //
+    // Arguments:
+    //   display - the display for the games
+    //   board - the board to play the games on
+    //   x - the first player (using X game piece)
+    //   o - the second player (using the O game piece)
+    //   types - the player types for player one and player two
+    //
+    private GameMgr(IDisplay display, Board board, Player x, Player o, String [] types) {
+        this.display_ = display ;
+        this.headless_ = (display instanceof NullDisplay) ;
+        this.x_ = x ;
+        this.o_ = o ;
+        this.xtype_ = types[0] ;
+        this.otype_ = types[1] ;
+        this.board_ = board ;
+
+        this.x_.setDisplay(display) ;
+        this.o_.setDisplay(display);
+    }
+
+    //
+    // Play a single game of tic-tac-toe
+    // We return information about who won the game
+    //
+    private Board.GameWonInfo playOneGame() {
+        Board.GameWonInfo info = null ;
+        Player who = x_ ;                       // The curret player, alternates between x_ and o_
+        int first = -1 ;                        // The first square played
+        board_.clearBoard();                    // Clear the board for a new game
+
+        if (stats_ != null) {
+            stats_.gameStarted() ;
+        }
+
+        //
+        // The flight recorder events cost almost nothing when recording is off, the JIT
+        // compiler removes the event objects and the checks are constant false
+        //
+        GameStartEvent started = new GameStartEvent() ;
+        if (started.shouldCommit()) {
+            started.xType = xtype_ ;
+            started.oType = otype_ ;
+            started.rows = board_.rows() ;
+            started.cols = board_.cols() ;
+            started.winLength = board_.winLength() ;
+            started.commit() ;
+        }
+
+        GameEndEvent ended = new GameEndEvent() ;
+        ended.begin() ;
+
+        if (recorder_ != null) {
+            recorder_.startGame() ;
+        }
+
+        while (true) {
+            //
+            // If the player needs to see the board (human player) display it
+            //
+            if (!headless_ && (who.showBoard() || display_.alwaysUpdateBoard())) {
+                display_.updateBoardDisplay(board_);
+            }
+
+            //
+            // Ask the player for their next move.  Note, the
+            // board is passed in because the player classes store no state information
+            // about the game.  The player class is asked to look at the current state of the board
+            // and decide what move to make.  The move is the index of the square, so no
+            // position object is needed.
+            //
+            int square = move(who) ;
+
+            //
+            // Set the square in the board.
+            //
+            board_.setPiece(square, who.getMyGamePiece());
+
+            if (first == -1) {
+                first = square ;
+            }
+
+            if (recorder_ != null) {
+                recorder_.addMove(square) ;
+            }
+
+            if (stats_ != null) {
+                long start = System.nanoTime() ;
+                info = board_.hasWon() ;
+                haswon_.record(System.nanoTime() - start) ;
+            }
+            else {
+                info = board_.hasWon() ;
+            }
+
+            if (info != null) {
+                //
+                // Someone won or the board is full and its a tie, break out of the game loop
+                //
+                if (!headless_) {
+                    display_.updateBoardDisplay(board_);
+                }
+
+                try {
+                    if (recorder_ != null) {
+                        recorder_.endGame() ;
+                    }
+
+                    if (results_ != null) {
+                        results_.add(info.who, board_.totalPlayed(), board_.winningLine(), first) ;
+                    }
+                }
+                catch(IOException ex) {
+                    throw new UncheckedIOException(ex) ;
+                }
+
+                if (stats_ != null) {
+                    stats_.gameFinished(info.who) ;
+                }
+
+                ended.end() ;
+                if (ended.shouldCommit()) {
+                    ended.winner = info.who.toString() ;
+                    ended.moves = board_.totalPlayed() ;
+                    ended.where = "" ;
+                    if (info.where != null) {
+                        StringBuilder where = new StringBuilder() ;
+                        for(BoardPosition pos : info.where) {
+                            where.append((where.length() == 0) ? "" : " ").append(pos.Row).append(',').append(pos.Col) ;
+                        }
+                        ended.where = where.toString() ;
+                    }
+                    ended.commit() ;
+                }
+                break ;
+            }
+
+            //
+            // Now one has won yet
+            //
+            if (who == x_) {
+                who = o_ ;
+            }
+            else {
+                who = x_ ;
+            }
+        }
+
+        return info ;
+    }
+
+    //
+    // Ask a player for the index of the square it plays, timing the move and adding the flight
+    // recorder Move event.  This is kept in its own small method so the JIT compiler inlines it and
+    // can see that the event object never escapes, and removes it.  When the event was created in
+    // the game loop the object was still allocated for many of the moves.
+    //
+    // Arguments:
+    //    who - the player to move
+    //
+    private int move(Player who) {
+        MoveEvent moved = new MoveEvent() ;
+        moved.begin() ;
+        long start = (xtimes_ != null || stats_ != null) ? System.nanoTime() : 0 ;
+        int square = who.nextSquare(board_) ;
+        moved.end() ;
+        if (xtimes_ != null) {
+            ((who == x_) ? xtimes_ : otimes_).record(System.nanoTime() - start) ;
+        }
+        else if (stats_ != null) {
+            ((who == x_) ? xlatency_ : olatency_).record(System.nanoTime() - start) ;
+        }
+
+        if (moved.shouldCommit()) {
+            moved.playerType = (who == x_) ? xtype_ : otype_ ;
+            moved.piece = who.getMyGamePiece().toString() ;
+            moved.row = square / board_.cols() ;
+            moved.col = square % board_.cols() ;
+            moved.branch = (who instanceof ComputerPlayer) ? (((ComputerPlayer)who).lastMoveSmart() ? "smart" : "random") : "" ;
+            moved.commit() ;
+        }
+
+        return square ;
+    }
+
+    //
+    // Add the games played by this GameMgr to the live statistics
+    //
+    // Arguments:
+    //   stats - the live statistics
+    //   types - the player types for player one and player two
+    //
+    private void watch(GameStats stats, String [] types) {
+        stats_ = stats ;
+        xlatency_ = stats.moveLatency(types[0]) ;
+        olatency_ = stats.moveLatency(types[1]) ;
+        haswon_ = stats.hasWonLatency() ;
+    }
+
+    //
+    // Reset the number of games won and tied
+    //
+    private void resetScore() {
+        xwon_ = 0 ;
+        owon_ = 0 ;
+        tied_ = 0 ;
+    }
+
+    //
+    // Play the series of games requested
+    //
+    private void play(int count) {
+        int which = 0 ;                 // This counts which game we are on
+
+        //
+        // Reset the number of games won and tied to zero
+        //
+        resetScore() ;
+
+        if (headless_) {
+            playHeadless(count) ;
+            return ;
+        }
+
+        while (which < count) {
+            // 
+            // Display the face we are starting a new game
+            //
+            display_.newGame(which + 1, count);
+
+            //
+            // Place the game
+            //
+            Board.GameWonInfo info = playOneGame() ;
+
+            //
+            // Increment the number of games we have played
+            //
+            which++ ;
+
+            //
+            // Keep track of the number won and tied 
+            //
+            if (info.who == GamePiece.X) {
+                xwon_++ ;
+            }
+            else if (info.who == GamePiece.O) {
+                owon_++ ;
+            }
+            else {
+                tied_++ ;
+            }
+
+            //
+            // Show who won the game
+            //
+            display_.showWon(info, board_) ;
+
+            //
+            // Show total games won and tied
+            //
+            display_.showTotal(false, xwon_, owon_, tied_);            
+        }
+
+        //
+        // Show total games won and tied
+        //
+        display_.showTotal(true, xwon_, owon_, tied_);
+    }
+
+    //
+    // Play the series of games requested with nothing displayed.  The display is not called
+    // for each game, and only the final totals and the number of games per second are printed.
+    //
+    private void playHeadless(int count) {
+        long start = System.nanoTime() ;
+        playGames(count) ;
+        double secs = (System.nanoTime() - start) / 1.0e9 ;
+
+        printTotals(count, secs, xwon_, owon_, tied_) ;
+    }
+
+    //
+    // Play games without calling the display, adding to the number of games won and tied
+    //
+    private void playGames(int count) {
+        for(int which = 0 ; which < count ; which++) {
+            Board.GameWonInfo info = playOneGame() ;
+
+            if (info.who == GamePiece.X) {
+                xwon_++ ;
+            }
+            else if (info.who == GamePiece.O) {
+                owon_++ ;
+            }
+            else {
+                tied_++ ;
+            }
+        }
+    }
+
+    //
+    // Benchmark the players.  The warmup games are played first and not timed, so the
+    // JIT compiler has compiled the code before the timed games start.  Then the timed games are
+    // played with the time of each move recorded.  The heap allocated by this thread during the
+    // timed games is read from the JVM so the allocation per game can be reported.
+    //
+    // Arguments:
+    //   warmup - the number of games to play before timing
+    //   count - the number of timed games
+    //   types - the player types for player one and player two, for the report
+    //
+    private void bench(int warmup, int count, String [] types) {
+        playGames(warmup) ;
+        resetScore() ;
+
+        //
+        // The move times are counted in histograms of a fixed size, so a long run does not
+        // need memory for every move
+        //
+        xtimes_ = new LatencyHistogram() ;
+        otimes_ = new LatencyHistogram() ;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean() ;
+        long heap = threads.getCurrentThreadAllocatedBytes() ;
+        long start = System.nanoTime() ;
+
+        playGames(count) ;
+
+        double secs = (System.nanoTime() - start) / 1.0e9 ;
+        heap = threads.getCurrentThreadAllocatedBytes() - heap ;
+        LatencySummary xsummary = xtimes_.summary() ;
+        LatencySummary osummary = otimes_.summary() ;
+        long moves = xsummary.getCount() + osummary.getCount() ;
+
+        System.out.printf("Benchmark: %s (X) vs %s (O) on a %dx%d board with %d in a row, %d warmup games, %d timed games\n",
+                            types[0], types[1], board_.rows(), board_.cols(), board_.winLength(), warmup, count) ;
+        System.out.printf("  %.3f seconds, %.0f games/sec, %.0f moves/sec\n", secs, count / secs, moves / secs) ;
+        System.out.printf("  X %-12s %10d moves, mean %10.1f ns, p99 %10d ns\n", types[0], xsummary.getCount(), xsummary.getMean(), xsummary.getP99()) ;
+        System.out.printf("  O %-12s %10d moves, mean %10.1f ns, p99 %10d ns\n", types[1], osummary.getCount(), osummary.getMean(), osummary.getP99()) ;
+        System.out.printf("  heap allocated per game: %.1f bytes\n", (double)heap / count) ;
+        System.out.printf("  X: %d, O: %d, tied: %d\n", xwon_, owon_, tied_) ;
+
+        xtimes_ = null ;
+        otimes_ = null ;
+    }
+}
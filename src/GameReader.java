@@ -0,0 +1,233 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//
+// This class reads the games written by the GameRecorder.  The file is read through one
+// buffer that is refilled as the records are used, so a file with billions of games can be read
+// without holding it in memory.  Each record is decoded into the list of squares played by
+// replaying it on a board, and the game can then be replayed on any other board.
+//
+public class GameReader implements Closeable {
+    private static final int BufferSize = 64 * 1024 ;
+
+    private final FileChannel channel_ ;            // The file the records are read from
+    private final ByteBuffer buffer_ ;              // The records read from the file but not used yet
+    private final int rows_ ;                       // The number of rows on the board
+    private final int cols_ ;                       // The number of columns on the board
+    private final int k_ ;                          // The number in a row needed to win
+    private final int squares_ ;                    // The number of squares on the board
+    private final int bytes_ ;                      // The number of bytes in each record
+    private final Board board_ ;                    // The board used to find where each game ended
+    private final int [] choices_ ;                 // The choice made for each move of the current game
+    private final int [] moves_ ;                   // The squares played in the current game
+    private int count_ ;                            // The number of moves in the current game
+    private Board.GameWonInfo result_ ;             // The result of the current game
+
+    //
+    // Open a file written by the GameRecorder
+    //
+    // Arguments:
+    //    file - the file to read
+    //
+    public GameReader(Path file) throws IllegalArgumentException, IOException {
+        channel_ = FileChannel.open(file, StandardOpenOption.READ) ;
+
+        ByteBuffer header = ByteBuffer.allocate(GameRecorder.HeaderSize) ;
+        while (header.hasRemaining() && channel_.read(header) > 0) {
+        }
+        header.flip() ;
+
+        if (header.remaining() < GameRecorder.HeaderSize || header.getInt() != GameRecorder.Magic) {
+            channel_.close() ;
+            throw new IllegalArgumentException("the file '" + file + "' is not a game record file") ;
+        }
+
+        rows_ = header.getInt() ;
+        cols_ = header.getInt() ;
+        k_ = header.getInt() ;
+        bytes_ = header.getInt() ;
+        squares_ = rows_ * cols_ ;
+
+        board_ = Board.create(rows_, cols_, k_) ;
+        choices_ = new int[squares_] ;
+        moves_ = new int[squares_] ;
+        buffer_ = ByteBuffer.allocateDirect(BufferSize - BufferSize % bytes_) ;
+        buffer_.flip() ;
+    }
+
+    //
+    // Return the number of rows on the board the games were played on
+    //
+    public int rows() {
+        return rows_ ;
+    }
+
+    //
+    // Return the number of columns on the board the games were played on
+    //
+    public int cols() {
+        return cols_ ;
+    }
+
+    //
+    // Return the number in a row needed to win on the board the games were played on
+    //
+    public int winLength() {
+        return k_ ;
+    }
+
+    //
+    // Move to the next game in the file
+    //
+    // Returns false if there are no more games
+    //
+    public boolean next() throws IOException {
+        if (buffer_.remaining() < bytes_) {
+            buffer_.compact() ;
+            while (buffer_.position() < bytes_ && channel_.read(buffer_) > 0) {
+            }
+            buffer_.flip() ;
+
+            if (buffer_.remaining() < bytes_)
+                return false ;
+        }
+
+        long code = 0 ;
+        for(int i = 0 ; i < bytes_ ; i++) {
+            code = (code << 8) | (buffer_.get() & 0xFF) ;
+        }
+
+        //
+        // Split the number back into the choice for each move, last move first
+        //
+        for(int move = squares_ - 1 ; move >= 0 ; move--) {
+            choices_[move] = (int)(code % (squares_ - move)) ;
+            code /= squares_ - move ;
+        }
+
+        //
+        // Replay the choices until the game is over
+        //
+        board_.clearBoard() ;
+        GamePiece who = GamePiece.X ;
+        long filled = 0 ;
+        result_ = null ;
+        count_ = 0 ;
+
+        while (result_ == null) {
+            int square = nthEmpty(filled, choices_[count_]) ;
+            moves_[count_++] = square ;
+            filled |= 1L << square ;
+
+            board_.setPiece(square, who) ;
+            result_ = board_.hasWon() ;
+            who = (who == GamePiece.X) ? GamePiece.O : GamePiece.X ;
+        }
+
+        return true ;
+    }
+
+    //
+    // Return the number of moves in the current game
+    //
+    public int moveCount() {
+        return count_ ;
+    }
+
+    //
+    // Return the square (row * cols + col) played on a move of the current game
+    //
+    // Arguments:
+    //    move - the move, starting at 0 for the first X move
+    //
+    public int move(int move) {
+        return moves_[move] ;
+    }
+
+    //
+    // Return who won the current game, or EMPTY if it was a tie
+    //
+    public GamePiece winner() {
+        return result_.who ;
+    }
+
+    //
+    // Replay the current game on a board.  The board is cleared first.
+    //
+    // Arguments:
+    //    board - the board to play the game on, the same size as the recorded games
+    //
+    public void replay(Board board) {
+        board.clearBoard() ;
+        GamePiece who = GamePiece.X ;
+        for(int move = 0 ; move < count_ ; move++) {
+            board.setPiece(moves_[move], who) ;
+            who = (who == GamePiece.X) ? GamePiece.O : GamePiece.X ;
+        }
+    }
+
+    public void close() throws IOException {
+        channel_.close() ;
+    }
+
+    //
+    // Return the index of the nth empty square
+    //
+    private int nthEmpty(long filled, int n) {
+        for(int square = 0 ; square < squares_ ; square++) {
+            if ((filled & (1L << square)) == 0 && n-- == 0)
+                return square ;
+        }
+
+        throw new IllegalStateException("the game record is not valid") ;
+    }
+
+    //
+    // Read a game record file and print the number of games won by X and O and tied.
+    //
+    // Arguments:
+    //   file                       ' the game record file
+    //
+    static public void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("usage: GameReader file") ;
+            System.exit(1) ;
+        }
+
+        long xwon = 0 ;
+        long owon = 0 ;
+        long tied = 0 ;
+        long start = System.nanoTime() ;
+
+        try (GameReader reader = new GameReader(Path.of(args[0]))) {
+            while (reader.next()) {
+                if (reader.winner() == GamePiece.X) {
+                    xwon++ ;
+                }
+                else if (reader.winner() == GamePiece.O) {
+                    owon++ ;
+                }
+                else {
+                    tied++ ;
+                }
+            }
+        }
+        catch(IllegalArgumentException | IllegalStateException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not read the game record file '" + args[0] + "' - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        long games = xwon + owon + tied ;
+        double secs = (System.nanoTime() - start) / 1.0e9 ;
+        System.out.printf("X: %d, O: %d, tied: %d\n", xwon, owon, tied);
+        System.out.printf("%d games read in %.3f seconds, %.0f games/sec\n", games, secs, games / secs);
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//
+// This class writes a compact binary record of every game played to a file.  A game is the
+// list of squares played.  The first move is one of N empty squares, the second move is one of
+// the N - 1 squares still empty, and so on, so a whole game is a single number below N!
+// (N factorial) written in a fixed number of bytes.  Once a game is won the rest of the choices
+// are zero, and replaying the moves through a board shows where the game ended.  On the classic
+// board 9! = 362880, so every game takes 3 bytes.
+//
+// The file starts with a header of five ints: the magic number, the rows, the columns, the
+// number in a row to win, and the number of bytes in each record.  The records are collected in a
+// direct buffer and written to the file channel when the buffer is full, so recording a game
+// does not create any objects.  The GameReader reads the file back.
+//
+public class GameRecorder implements Closeable {
+    public static final int Magic = 0x54545452 ;    // "TTTR"
+    public static final int HeaderSize = 20 ;       // The size of the header in bytes
+    public static final int MaxSquares = 20 ;       // 20! is the largest factorial that fits in a long
+
+    private static final int BufferSize = 64 * 1024 ;
+
+    private final FileChannel channel_ ;            // The file the records are written to
+    private final ByteBuffer buffer_ ;              // The records waiting to be written
+    private final int squares_ ;                    // The number of squares on the board
+    private final int bytes_ ;                      // The number of bytes in each record
+    private long filled_ ;                          // The squares played so far in this game
+    private long code_ ;                            // The game so far as a mixed radix number
+    private int moves_ ;                            // The number of moves so far in this game
+    private long games_ ;                           // The number of games recorded
+
+    //
+    // Create the recorder and write the header
+    //
+    // Arguments:
+    //    file - the file to write, any existing file is replaced
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //
+    public GameRecorder(Path file, int rows, int cols, int k) throws IllegalArgumentException, IOException {
+        squares_ = rows * cols ;
+        bytes_ = recordSize(squares_) ;
+
+        channel_ = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ;
+        buffer_ = ByteBuffer.allocateDirect(BufferSize - BufferSize % bytes_) ;
+        buffer_.putInt(Magic).putInt(rows).putInt(cols).putInt(k).putInt(bytes_) ;
+    }
+
+    //
+    // Return the number of bytes in the record for a board with the given number of squares
+    //
+    public static int recordSize(int squares) throws IllegalArgumentException {
+        if (squares < 1 || squares > MaxSquares) {
+            throw new IllegalArgumentException("games can only be recorded on boards with 1 to " + MaxSquares + " squares") ;
+        }
+
+        long factorial = 1 ;
+        for(int i = 2 ; i <= squares ; i++) {
+            factorial *= i ;
+        }
+
+        int bits = 64 - Long.numberOfLeadingZeros(factorial - 1) ;
+        return Math.max(1, (bits + 7) / 8) ;
+    }
+
+    //
+    // Start recording a new game
+    //
+    public void startGame() {
+        filled_ = 0 ;
+        code_ = 0 ;
+        moves_ = 0 ;
+    }
+
+    //
+    // Record a move in the current game
+    //
+    // Arguments:
+    //    square - the index of the square played (row * cols + col)
+    //
+    public void addMove(int square) {
+        //
+        // The choice is the position of the square among the squares that are still empty
+        //
+        long below = filled_ & ((1L << square) - 1) ;
+        int choice = square - Long.bitCount(below) ;
+
+        code_ = code_ * (squares_ - moves_) + choice ;
+        filled_ |= 1L << square ;
+        moves_++ ;
+    }
+
+    //
+    // Finish the current game and add its record to the file
+    //
+    public void endGame() throws IOException {
+        //
+        // The moves that were not played are all choice zero
+        //
+        long code = code_ ;
+        for(int move = moves_ ; move < squares_ ; move++) {
+            code *= squares_ - move ;
+        }
+
+        if (buffer_.remaining() < bytes_) {
+            flush() ;
+        }
+
+        for(int shift = (bytes_ - 1) * 8 ; shift >= 0 ; shift -= 8) {
+            buffer_.put((byte)(code >>> shift)) ;
+        }
+        games_++ ;
+    }
+
+    //
+    // Return the number of games recorded
+    //
+    public long games() {
+        return games_ ;
+    }
+
+    //
+    // Write any records in the buffer to the file
+    //
+    public void flush() throws IOException {
+        buffer_.flip() ;
+        while (buffer_.hasRemaining()) {
+            channel_.write(buffer_) ;
+        }
+        buffer_.clear() ;
+    }
+
+    //
+    // Write the last of the records and close the file
+    //
+    public void close() throws IOException {
+        try {
+            flush() ;
+        }
+        finally {
+            channel_.close() ;
+        }
+    }
+}
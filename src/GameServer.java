@@ -0,0 +1,565 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+//
+// This class is a game server that plays many games at once against clients connected over
+// TCP.  Each client plays against a computer player on the server.  There is one thread and one
+// NIO selector for all of the connections, and nothing ever blocks waiting for a client, so
+// thousands of games can be played at once.  Each connection has its own board, and a game is
+// played a step at a time by a GameSession as the moves arrive.
+//
+// The computer players store no game state, so one player of each type and piece is shared by
+// all of the games.  A slow player (for example mcts with a large budget) holds up every game
+// while it thinks.
+//
+// The protocol is one line of ASCII text per message, each starting with a single letter.  A
+// square is row * cols + col.
+//
+//    server -> client    H rows cols k     sent when the client connects, the size of the board
+//    client -> server    N piece type      start a new game, the client plays the piece (X or O)
+//                                          against a computer player of the type
+//    server -> client    S square          the game started, the square is the computer's first
+//                                          move or -1 if the client moves first
+//    client -> server    M square          the client plays a square
+//    server -> client    M square          the computer played a square, it is the client's move
+//    server -> client    E winner square   the game is over, the winner is X, O or T for a tie and
+//                                          the square is the computer's last move or -1
+//    server -> client    R text            the last message was refused, the text says why
+//    client -> server    Q                 close the connection
+//
+public class GameServer {
+    public static final int DefaultPort = 7777 ;
+
+    private static final int InputSize = 256 ;      // The longest line a client can send
+    private static final int OutputSize = 4096 ;    // The most output waiting for a slow client
+    private static final int ReplySize = 512 ;      // The room needed for the longest reply to one line
+
+    private final Selector selector_ ;              // The selector for all of the connections
+    private final ServerSocketChannel server_ ;     // The channel the connections are accepted on
+    private final PlayerFactory factory_ ;          // Creates the computer players
+    private final Map<String, Player> players_ ;    // The computer players, by piece and type
+    private final SplittableRandom seeds_ ;         // The seeds for the computer players
+    private final int rows_ ;                       // The number of rows on the board
+    private final int cols_ ;                       // The number of columns on the board
+    private final int k_ ;                          // The number in a row needed to win
+    private int connections_ ;                      // The number of clients connected
+    private long games_ ;                            // The number of games finished
+
+    //
+    // The state of one client connection
+    //
+    private class Connection {
+        private final SocketChannel channel_ ;      // The socket
+        private final ByteBuffer in_ ;              // The input that is not a complete line yet
+        private final ByteBuffer out_ ;             // The output not yet written to the socket
+        private final Board board_ ;                // The board for the games on this connection
+        private final RemotePlayer x_ ;             // The client when it plays X
+        private final RemotePlayer o_ ;             // The client when it plays O
+        private GameSession session_ ;              // The game being played, or null
+        private boolean stalled_ ;                  // True while the lines read wait for the client to read its replies
+        private boolean overflow_ ;                 // True if a reply did not fit in the output
+
+        Connection(SocketChannel channel) {
+            channel_ = channel ;
+            in_ = ByteBuffer.allocate(InputSize) ;
+            out_ = ByteBuffer.allocate(OutputSize) ;
+            board_ = Board.create(rows_, cols_, k_) ;
+            x_ = new RemotePlayer(GamePiece.X) ;
+            o_ = new RemotePlayer(GamePiece.O) ;
+        }
+    }
+
+    //
+    // Create the server and start listening for connections
+    //
+    // Arguments:
+    //    port - the port to listen on
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //    factory - creates the computer players
+    //    seed - the seed for the computer players
+    //
+    public GameServer(int port, int rows, int cols, int k, PlayerFactory factory, long seed) throws IllegalArgumentException, IOException {
+        Board.create(rows, cols, k) ;
+
+        rows_ = rows ;
+        cols_ = cols ;
+        k_ = k ;
+        factory_ = factory ;
+        players_ = new HashMap<String, Player>() ;
+        seeds_ = new SplittableRandom(seed) ;
+
+        selector_ = Selector.open() ;
+        server_ = ServerSocketChannel.open() ;
+        server_.bind(new InetSocketAddress(port), 1024) ;
+        server_.configureBlocking(false) ;
+        server_.register(selector_, SelectionKey.OP_ACCEPT) ;
+    }
+
+    //
+    // Return the port the server is listening on
+    //
+    public int port() throws IOException {
+        return ((InetSocketAddress)server_.getLocalAddress()).getPort() ;
+    }
+
+    //
+    // Serve the clients until the thread is interrupted.  The number of connections and
+    // the games finished per second are printed every few seconds while there are clients.
+    //
+    // Arguments:
+    //    report - the time between reports in milliseconds, 0 for no reports
+    //
+    public void serve(long report) throws IOException {
+        long last = System.nanoTime() ;
+        long lastGames = 0 ;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            selector_.select(1000) ;
+
+            Iterator<SelectionKey> keys = selector_.selectedKeys().iterator() ;
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next() ;
+                keys.remove() ;
+
+                try {
+                    if (!key.isValid()) {
+                        continue ;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept() ;
+                        continue ;
+                    }
+
+                    Connection conn = (Connection)key.attachment() ;
+                    if (key.isReadable()) {
+                        read(key, conn) ;
+                    }
+
+                    if (key.isValid() && key.isWritable()) {
+                        write(key, conn) ;
+                    }
+                }
+                catch(IOException ex) {
+                    close(key) ;
+                }
+            }
+
+            long now = System.nanoTime() ;
+            if (report > 0 && now - last >= report * 1000000L) {
+                if (connections_ > 0 || games_ != lastGames) {
+                    double secs = (now - last) / 1.0e9 ;
+                    System.out.printf("%d connections, %.0f games/sec, %d games\n", connections_, (games_ - lastGames) / secs, games_) ;
+                }
+                last = now ;
+                lastGames = games_ ;
+            }
+        }
+    }
+
+    //
+    // Accept a new connection and tell the client the size of the board
+    //
+    private void accept() throws IOException {
+        SocketChannel channel = server_.accept() ;
+        if (channel == null)
+            return ;
+
+        channel.configureBlocking(false) ;
+        channel.socket().setTcpNoDelay(true) ;
+
+        Connection conn = new Connection(channel) ;
+        SelectionKey key = channel.register(selector_, SelectionKey.OP_READ, conn) ;
+        connections_++ ;
+
+        put(conn, 'H').put(conn, ' ').putInt(conn, rows_).put(conn, ' ').putInt(conn, cols_).put(conn, ' ').putInt(conn, k_).put(conn, '\n') ;
+        write(key, conn) ;
+    }
+
+    //
+    // Read what the client sent and handle each complete line
+    //
+    private void read(SelectionKey key, Connection conn) throws IOException {
+        if (conn.channel_.read(conn.in_) < 0) {
+            close(key) ;
+            return ;
+        }
+
+        process(key, conn) ;
+    }
+
+    //
+    // Handle each complete line that has been read.  A line is only handled when there is
+    // room in the output for the longest reply.  When there is not, the client is sending faster
+    // than it reads its replies, so the rest of the lines wait and the connection stops reading
+    // until the output has been written.
+    //
+    private void process(SelectionKey key, Connection conn) throws IOException {
+        conn.in_.flip() ;
+        int start = conn.in_.position() ;
+        boolean quit = false ;
+        conn.stalled_ = false ;
+        for(int i = start ; i < conn.in_.limit() && !quit ; i++) {
+            if (conn.in_.get(i) == '\n') {
+                if (conn.out_.remaining() < ReplySize) {
+                    conn.stalled_ = true ;
+                    break ;
+                }
+
+                quit = !handle(conn, start, i) ;
+                start = i + 1 ;
+            }
+        }
+        conn.in_.position(start) ;
+        conn.in_.compact() ;
+
+        if (conn.overflow_) {
+            //
+            // A reply was cut short, so the client could not make sense of the rest
+            //
+            close(key) ;
+            return ;
+        }
+
+        if (quit) {
+            write(key, conn) ;
+            close(key) ;
+            return ;
+        }
+
+        if (!conn.stalled_ && !conn.in_.hasRemaining()) {
+            //
+            // The line is too long to be a valid message
+            //
+            close(key) ;
+            return ;
+        }
+
+        write(key, conn) ;
+    }
+
+    //
+    // Handle one line from the client
+    //
+    // Arguments:
+    //    conn - the connection the line arrived on
+    //    start - the index of the first byte of the line in the input buffer
+    //    end - the index of the newline at the end of the line
+    //
+    // Returns false if the connection should be closed
+    //
+    private boolean handle(Connection conn, int start, int end) {
+        if (end > start && conn.in_.get(end - 1) == '\r') {
+            end-- ;
+        }
+
+        if (end == start) {
+            return true ;
+        }
+
+        byte command = conn.in_.get(start) ;
+        if (command == 'M') {
+            if (conn.session_ == null || conn.session_.result() != null) {
+                refuse(conn, "no game is being played") ;
+                return true ;
+            }
+
+            int square = parseInt(conn.in_, start + 1, end) ;
+            try {
+                int reply = conn.session_.move(square) ;
+                sendResult(conn, reply, 'M') ;
+            }
+            catch(IllegalArgumentException ex) {
+                refuse(conn, ex.getMessage()) ;
+            }
+        }
+        else if (command == 'N') {
+            String [] words = new String(conn.in_.array(), start, end - start, StandardCharsets.US_ASCII).trim().split(" +") ;
+            if (words.length != 3 || (!words[1].equals("X") && !words[1].equals("O"))) {
+                refuse(conn, "the new game message is N piece type") ;
+                return true ;
+            }
+
+            GamePiece piece = words[1].equals("X") ? GamePiece.X : GamePiece.O ;
+            Player computer = computer(words[2], (piece == GamePiece.X) ? GamePiece.O : GamePiece.X, conn.board_) ;
+            if (computer == null) {
+                refuse(conn, "'" + words[2] + "' is not a computer player type that can play on this board") ;
+                return true ;
+            }
+
+            conn.session_ = new GameSession(conn.board_, (piece == GamePiece.X) ? conn.x_ : conn.o_, computer) ;
+            sendResult(conn, conn.session_.start(), 'S') ;
+        }
+        else if (command == 'Q') {
+            return false ;
+        }
+        else {
+            refuse(conn, "unknown message") ;
+        }
+
+        return true ;
+    }
+
+    //
+    // Send the computer's move, or the end of the game if it is over
+    //
+    // Arguments:
+    //    conn - the connection
+    //    square - the square the computer played, or -1
+    //    command - the message to send if the game is not over
+    //
+    private void sendResult(Connection conn, int square, char command) {
+        Board.GameWonInfo result = conn.session_.result() ;
+        if (result == null) {
+            put(conn, command).put(conn, ' ').putInt(conn, square).put(conn, '\n') ;
+            return ;
+        }
+
+        char winner = (result.who == GamePiece.X) ? 'X' : (result.who == GamePiece.O) ? 'O' : 'T' ;
+        put(conn, 'E').put(conn, ' ').put(conn, winner).put(conn, ' ').putInt(conn, square).put(conn, '\n') ;
+        games_++ ;
+    }
+
+    //
+    // Return the shared computer player of a type and piece, creating it the first time it
+    // is needed.  Returns null if the type is not a computer player or can't play on the board.
+    //
+    private Player computer(String type, GamePiece piece, Board board) {
+        String key = piece + type ;
+        Player ret = players_.get(key) ;
+
+        if (ret == null && !players_.containsKey(key)) {
+            if (PlayerFactory.isValidType(type) && !type.equals("human")) {
+                try {
+                    ret = factory_.create(type, piece, seeds_.nextLong()) ;
+                    if (!ret.canPlay(board)) {
+                        ret = null ;
+                    }
+                }
+                catch(IllegalArgumentException | IOException ex) {
+                    ret = null ;
+                }
+            }
+            players_.put(key, ret) ;
+        }
+
+        return ret ;
+    }
+
+    private void refuse(Connection conn, String text) {
+        put(conn, 'R').put(conn, ' ') ;
+        for(int i = 0 ; i < text.length() ; i++) {
+            put(conn, text.charAt(i)) ;
+        }
+        put(conn, '\n') ;
+    }
+
+    //
+    // Write as much of the waiting output as the socket will take, and only ask the selector
+    // about writing while some is left.  While lines are waiting for room in the output the
+    // selector is not asked about reading, and once there is room the waiting lines are handled.
+    //
+    private void write(SelectionKey key, Connection conn) throws IOException {
+        if (!key.isValid())
+            return ;
+
+        conn.out_.flip() ;
+        conn.channel_.write(conn.out_) ;
+        conn.out_.compact() ;
+
+        if (conn.stalled_ && conn.out_.remaining() >= ReplySize) {
+            process(key, conn) ;
+            return ;
+        }
+
+        int ops = (conn.out_.position() > 0) ? SelectionKey.OP_WRITE : 0 ;
+        if (!conn.stalled_) {
+            ops |= SelectionKey.OP_READ ;
+        }
+        key.interestOps(ops) ;
+    }
+
+    private void close(SelectionKey key) {
+        if (key.isValid()) {
+            connections_-- ;
+        }
+
+        key.cancel() ;
+        try {
+            key.channel().close() ;
+        }
+        catch(IOException ex) {
+        }
+    }
+
+    //
+    // Add a character to the output.  Lines are only handled when there is room for the
+    // reply, so the output should never fill.  If it does, the connection is marked and closed
+    // rather than sending the client part of a line.
+    //
+    private GameServer put(Connection conn, char ch) {
+        if (conn.out_.hasRemaining()) {
+            conn.out_.put((byte)ch) ;
+        }
+        else {
+            conn.overflow_ = true ;
+        }
+        return this ;
+    }
+
+    //
+    // Add a number to the output
+    //
+    private GameServer putInt(Connection conn, int value) {
+        if (value < 0) {
+            put(conn, '-') ;
+            value = -value ;
+        }
+
+        int digits = 1 ;
+        while (digits <= value / 10) {
+            digits *= 10 ;
+        }
+
+        for( ; digits > 0 ; digits /= 10) {
+            put(conn, (char)('0' + (value / digits) % 10)) ;
+        }
+
+        return this ;
+    }
+
+    //
+    // Parse a number from the input, skipping spaces first.  Returns -1 if there is no number.
+    //
+    static int parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start ;
+        while (i < end && buffer.get(i) == ' ') {
+            i++ ;
+        }
+
+        boolean negative = (i < end && buffer.get(i) == '-') ;
+        if (negative) {
+            i++ ;
+        }
+
+        if (i == end)
+            return -1 ;
+
+        int ret = 0 ;
+        for( ; i < end ; i++) {
+            byte ch = buffer.get(i) ;
+            if (ch < '0' || ch > '9' || ret > 100000000)
+                return -1 ;
+            ret = ret * 10 + (ch - '0') ;
+        }
+
+        return negative ? -ret : ret ;
+    }
+
+    //
+    // Return the integer value after an argument, exiting if there is none
+    //
+    private static int integerArgument(String [] args, int i) {
+        if (i == args.length - 1) {
+            System.err.println("the " + args[i] + " argument must be followed by an integer value") ;
+            System.exit(1) ;
+        }
+
+        try {
+            return Integer.parseInt(args[i + 1]) ;
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("the value '" + args[i + 1] + "' following the " + args[i] + " argument is not a valid integer") ;
+            System.exit(1) ;
+        }
+
+        return 0 ;
+    }
+
+    //
+    // Run the game server
+    //
+    // Arguments:
+    //   --port number              ' the port to listen on, default 7777
+    //   --rows number              ' the number of rows on the board, default 3
+    //   --cols number              ' the number of columns on the board, default 3
+    //   --k number                 ' the number in a row needed to win, default 3
+    //   --seed number              ' the seed for the computer players
+    //   --tablebase file           ' the tablebase file for the tablebase player
+    //   --mcts-iterations number   ' playouts per move for the mcts player
+    //   --report number            ' print the connections and games/sec every this many seconds, 0 for never
+    //
+    static public void main(String[] args) {
+        int port = DefaultPort ;
+        int rows = 3 ;
+        int cols = 3 ;
+        int k = 3 ;
+        long seed = new SplittableRandom().nextLong() ;
+        String tablebase = TablebaseSolver.DefaultFile ;
+        int iterations = 2000 ;
+        int report = 5 ;
+
+        for(int i = 0 ; i < args.length ; i++) {
+            if (args[i].equals("--port")) {
+                port = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--rows")) {
+                rows = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--cols")) {
+                cols = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--k")) {
+                k = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--seed") && i < args.length - 1) {
+                try {
+                    seed = Long.parseLong(args[++i]) ;
+                }
+                catch(NumberFormatException ex) {
+                    System.err.println("the value '" + args[i] + "' following the --seed argument is not a valid integer") ;
+                    System.exit(1) ;
+                }
+            }
+            else if (args[i].equals("--mcts-iterations")) {
+                iterations = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--report")) {
+                report = integerArgument(args, i++) ;
+            }
+            else if (args[i].equals("--tablebase") && i < args.length - 1) {
+                tablebase = args[++i] ;
+            }
+            else {
+                System.err.println("usage: GameServer [--port n] [--rows n] [--cols n] [--k n] [--seed n] [--tablebase file] [--mcts-iterations n] [--report secs]") ;
+                System.exit(1) ;
+            }
+        }
+
+        try {
+            GameServer server = new GameServer(port, rows, cols, k, new PlayerFactory(tablebase, iterations, 0), seed) ;
+            System.out.println("serving " + rows + "x" + cols + " games with " + k + " in a row on port " + server.port()) ;
+            server.serve(report * 1000L) ;
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("the game server failed - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+//
+// One game between a client of the GameServer and a computer player on the server.  The
+// game loop of the GameMgr waits for each player in turn, but the server can't wait for a
+// client, so the session plays the game a step at a time instead.  Each step starts when a move
+// arrives from the client: the client's move is played, then the computer's reply, and the step
+// ends when it is the client's turn again or the game is over.
+//
+public class GameSession {
+    private final Board board_ ;                    // The board the game is played on
+    private final RemotePlayer remote_ ;            // The player on the other end of the socket
+    private final Player computer_ ;                // The player on the server
+    private Board.GameWonInfo result_ ;             // The result of the game, or null if it is still being played
+
+    //
+    // Create the session with an empty board.  Call start() next.
+    //
+    // Arguments:
+    //    board - the board to play on, it is cleared first
+    //    remote - the player for the client
+    //    computer - the player on the server, it must play the other piece
+    //
+    public GameSession(Board board, RemotePlayer remote, Player computer) {
+        board_ = board ;
+        remote_ = remote ;
+        computer_ = computer ;
+
+        board_.clearBoard() ;
+    }
+
+    //
+    // Make the first move of the game if the computer plays X
+    //
+    // Returns the square the computer played, or -1 if it is the client's move
+    //
+    public int start() {
+        if (computer_.getMyGamePiece() != GamePiece.X)
+            return -1 ;
+
+        return play(computer_) ;
+    }
+
+    //
+    // Play a move from the client, and the computer's reply if the game is not over
+    //
+    // Arguments:
+    //    square - the square the client played (row * cols + col)
+    //
+    // Returns the square the computer played, or -1 if the game ended on the client's move
+    //
+    public int move(int square) throws IllegalArgumentException, IllegalStateException {
+        if (result_ != null) {
+            throw new IllegalStateException("the game is over") ;
+        }
+
+        if (square < 0 || square >= board_.rows() * board_.cols()) {
+            throw new IllegalArgumentException("the square must be between 0 and " + (board_.rows() * board_.cols() - 1)) ;
+        }
+
+        BoardPosition pos = board_.position(square) ;
+        if (board_.getPiece(pos) != GamePiece.EMPTY) {
+            throw new IllegalArgumentException("that square is already taken") ;
+        }
+
+        remote_.deliver(pos) ;
+        play(remote_) ;
+        if (result_ != null)
+            return -1 ;
+
+        return play(computer_) ;
+    }
+
+    //
+    // Return the result of the game, or null if it is still being played
+    //
+    public Board.GameWonInfo result() {
+        return result_ ;
+    }
+
+    //
+    // Ask a player for its move and play it
+    //
+    // Returns the square played
+    //
+    private int play(Player who) {
+        int square = who.nextSquare(board_) ;
+        board_.setPiece(square, who.getMyGamePiece()) ;
+        result_ = board_.hasWon() ;
+
+        return square ;
+    }
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//
+// The Java Flight Recorder event for the start of a game
+//
+@Name("tictactoe.GameStart")
+@Label("Game Start")
+@Category("Tic-Tac-Toe")
+@Description("A game has started")
+public class GameStartEvent extends jdk.jfr.Event {
+    @Label("X Player")
+    public String xType ;
+
+    @Label("O Player")
+    public String oType ;
+
+    @Label("Rows")
+    public int rows ;
+
+    @Label("Columns")
+    public int cols ;
+
+    @Label("Win Length")
+    public int winLength ;
+}
@@ -0,0 +1,155 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+//
+// This class collects live statistics about the games being played, so a long run can be
+// watched from JConsole or any other JMX client while it plays.  It counts the games started,
+// finished, won and tied, and keeps a latency histogram of Player.nextMove for each player type
+// and one of Board.hasWon.  One GameStats is shared by all of the threads playing games.  The
+// counters are LongAdders, and each thread is given its own histograms, which are merged when
+// they are read, so the threads never wait on each other to update them.
+//
+public class GameStats implements GameStatsMXBean {
+    public static final String Name = "tictactoe:type=GameStats" ;
+
+    private final LongAdder started_ ;
+    private final LongAdder finished_ ;
+    private final LongAdder xwon_ ;
+    private final LongAdder owon_ ;
+    private final LongAdder tied_ ;
+    private final List<List<LatencyHistogram>> moves_ ;    // The nextMove histograms of each thread, indexed by the player type
+    private final List<LatencyHistogram> hasWon_ ;  // The hasWon histograms of each thread
+
+    public GameStats() {
+        started_ = new LongAdder() ;
+        finished_ = new LongAdder() ;
+        xwon_ = new LongAdder() ;
+        owon_ = new LongAdder() ;
+        tied_ = new LongAdder() ;
+
+        moves_ = new ArrayList<List<LatencyHistogram>>() ;
+        for(int i = 0 ; i < PlayerFactory.Types.length ; i++) {
+            moves_.add(new CopyOnWriteArrayList<LatencyHistogram>()) ;
+        }
+        hasWon_ = new CopyOnWriteArrayList<LatencyHistogram>() ;
+    }
+
+    //
+    // Register the statistics with the platform MBean server
+    //
+    public void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(Name)) ;
+    }
+
+    //
+    // Return a new histogram for the nextMove times of a player type.  Each thread asks for
+    // its own histogram, and the times in all of them are reported together.
+    //
+    // Arguments:
+    //    type - the player type (one of PlayerFactory.Types)
+    //
+    public LatencyHistogram moveLatency(String type) {
+        LatencyHistogram ret = new LatencyHistogram() ;
+        moves_.get(PlayerFactory.typeIndex(type)).add(ret) ;
+        return ret ;
+    }
+
+    //
+    // Return a new histogram for the hasWon times of one thread
+    //
+    public LatencyHistogram hasWonLatency() {
+        LatencyHistogram ret = new LatencyHistogram() ;
+        hasWon_.add(ret) ;
+        return ret ;
+    }
+
+    //
+    // Count a game that has started
+    //
+    public void gameStarted() {
+        started_.increment() ;
+    }
+
+    //
+    // Count a game that has finished
+    //
+    // Arguments:
+    //    winner - who won the game, EMPTY for a tie
+    //
+    public void gameFinished(GamePiece winner) {
+        finished_.increment() ;
+        if (winner == GamePiece.X) {
+            xwon_.increment() ;
+        }
+        else if (winner == GamePiece.O) {
+            owon_.increment() ;
+        }
+        else {
+            tied_.increment() ;
+        }
+    }
+
+    public long getGamesStarted() {
+        return started_.sum() ;
+    }
+
+    public long getGamesFinished() {
+        return finished_.sum() ;
+    }
+
+    public long getXWon() {
+        return xwon_.sum() ;
+    }
+
+    public long getOWon() {
+        return owon_.sum() ;
+    }
+
+    public long getTied() {
+        return tied_.sum() ;
+    }
+
+    //
+    // Return the nextMove times of the player types that have played any moves
+    //
+    public Map<String, LatencySummary> getMoveLatency() {
+        Map<String, LatencySummary> ret = new LinkedHashMap<String, LatencySummary>() ;
+        for(int i = 0 ; i < moves_.size() ; i++) {
+            LatencySummary summary = LatencyHistogram.summary(moves_.get(i)) ;
+            if (summary.getCount() > 0) {
+                ret.put(PlayerFactory.Types[i], summary) ;
+            }
+        }
+
+        return ret ;
+    }
+
+    public LatencySummary getHasWonLatency() {
+        return LatencyHistogram.summary(hasWon_) ;
+    }
+
+    public void reset() {
+        started_.reset() ;
+        finished_.reset() ;
+        xwon_.reset() ;
+        owon_.reset() ;
+        tied_.reset() ;
+
+        for(List<LatencyHistogram> histograms : moves_) {
+            for(LatencyHistogram histogram : histograms) {
+                histogram.reset() ;
+            }
+        }
+
+        for(LatencyHistogram histogram : hasWon_) {
+            histogram.reset() ;
+        }
+    }
+}
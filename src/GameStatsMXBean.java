@@ -0,0 +1,27 @@
+import java.util.Map;
+
+//
+// The management interface of the GameStats, as seen by JConsole or any other JMX client
+//
+public interface GameStatsMXBean {
+    long getGamesStarted() ;
+    long getGamesFinished() ;
+    long getXWon() ;
+    long getOWon() ;
+    long getTied() ;
+
+    //
+    // The time taken by Player.nextMove, by player type
+    //
+    Map<String, LatencySummary> getMoveLatency() ;
+
+    //
+    // The time taken by Board.hasWon after each move
+    //
+    LatencySummary getHasWonLatency() ;
+
+    //
+    // Clear all of the counters and histograms
+    //
+    void reset() ;
+}
@@ -0,0 +1,91 @@
+//
+// The interface a board engine must implement.  The board engine is the storage and the
+// line checking logic behind the Board class.  The Board class provides the public API
+// used by the players and the displays, and it forwards the work to the engine.  All
+// squares are addressed by a zero based index that is row * cols() + col.
+//
+public interface IBoardEngine {
+    //
+    // Return the number of rows on the board
+    //
+    int rows() ;
+
+    //
+    // Return the number of columns on the board
+    //
+    int cols() ;
+
+    //
+    // Return the number of pieces in a row needed to win the game
+    //
+    int winLength() ;
+
+    //
+    // Reset the board to all empty
+    //
+    void clear() ;
+
+    //
+    // Return the total number of squares played so far
+    //
+    int totalPlayed() ;
+
+    //
+    // Get the game piece at the given square
+    //
+    // Arguments:
+    //    index - the index of the square
+    //
+    GamePiece getPiece(int index) ;
+
+    //
+    // Set the game piece at the given square.  The square is expected to be empty.
+    //
+    // Arguments:
+    //    index - the index of the square
+    //    gp - the game piece to place on the square
+    //
+    void setPiece(int index, GamePiece gp) ;
+
+    //
+    // Return a bit mask of the squares holding the given game piece, or the empty squares
+    // if EMPTY is given.  Bit N of the mask is the square with index N, so this is only
+    // available on boards with 64 or fewer squares.
+    //
+    // Arguments:
+    //    p - the game piece
+    //
+    long getMask(GamePiece p) throws IllegalStateException ;
+
+    //
+    // Find a line where the given game piece needs only one more square to fill
+    // the line, and where the rest of the line is empty.  This is a line where either we could
+    // win or we need to block.
+    //
+    // Arguments:
+    //    p - the game piece to look for
+    //
+    // Returns the index of the empty square in the line, or -1 if there is no such line
+    //
+    int findTwo(GamePiece p) ;
+
+    //
+    // Find a line that is completely filled by one player.
+    //
+    // Returns the line number of the winning line, or -1 if no one has won
+    //
+    int winningLine() ;
+
+    //
+    // Return the number of lines on the board where a game can be won
+    //
+    int lineCount() ;
+
+    //
+    // Return the squares that make up the given line
+    //
+    // Arguments:
+    //    line - the line number as returned by winningLine()
+    //
+    BoardPosition [] lineSquares(int line) ;
+}
@@ -0,0 +1,139 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+//
+// This class collects a histogram of times that many threads can add to at once without
+// locking.  The times are counted in buckets rather than kept, so the memory used is fixed no
+// matter how many times are recorded.  Times below 8 nanoseconds each get their own bucket, and
+// every power of two above that is split into 8 buckets, so a percentile is never more than one
+// eighth (12.5%) above the real value.  The whole histogram is 488 counters, about 4 KB.
+//
+// The percentiles can be read while the games are still being played.  Threads that all add to
+// one histogram fight over the same few buckets, so busy threads should each have their own
+// histogram, and the summary of all of them is made with summary(histograms).  The --bench mode uses
+// the same histograms for its move times, so a long benchmark needs no more memory than a short
+// one.
+//
+public class LatencyHistogram {
+    private static final int SubBits = 3 ;                          // 2^3 = 8 buckets per power of two
+    private static final int SubCount = 1 << SubBits ;
+    private static final int BucketCount = (64 - SubBits) * SubCount ;
+
+    private final AtomicLongArray buckets_ ;        // The number of times recorded in each bucket
+    private final LongAdder total_ ;                // The sum of all of the times recorded
+    private final LongAccumulator max_ ;            // The longest time recorded
+
+    public LatencyHistogram() {
+        buckets_ = new AtomicLongArray(BucketCount) ;
+        total_ = new LongAdder() ;
+        max_ = new LongAccumulator(Math::max, 0) ;
+    }
+
+    //
+    // Record one time
+    //
+    // Arguments:
+    //    nanos - the time in nanoseconds
+    //
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0 ;
+        }
+
+        buckets_.getAndIncrement(bucket(nanos)) ;
+        total_.add(nanos) ;
+        max_.accumulate(nanos) ;
+    }
+
+    //
+    // Clear all of the times recorded
+    //
+    public void reset() {
+        for(int i = 0 ; i < BucketCount ; i++) {
+            buckets_.set(i, 0) ;
+        }
+        total_.reset() ;
+        max_.reset() ;
+    }
+
+    //
+    // Return a summary of the times recorded so far.  The buckets are copied first so the
+    // percentiles all come from the same counts even if times are being recorded while the
+    // summary is made.
+    //
+    public LatencySummary summary() {
+        return summary(List.of(this)) ;
+    }
+
+    //
+    // Return a summary of the times recorded so far in all of the given histograms, as if
+    // they had all been recorded in one histogram
+    //
+    // Arguments:
+    //    histograms - the histograms to summarize
+    //
+    public static LatencySummary summary(Iterable<LatencyHistogram> histograms) {
+        long [] counts = new long[BucketCount] ;
+        long count = 0 ;
+        long total = 0 ;
+        long max = 0 ;
+        for(LatencyHistogram histogram : histograms) {
+            for(int i = 0 ; i < BucketCount ; i++) {
+                long n = histogram.buckets_.get(i) ;
+                counts[i] += n ;
+                count += n ;
+            }
+            total += histogram.total_.sum() ;
+            max = Math.max(max, histogram.max_.get()) ;
+        }
+
+        double mean = (count == 0) ? 0.0 : (double)total / count ;
+        return new LatencySummary(count, mean, percentile(counts, count, 0.5, max), percentile(counts, count, 0.9, max),
+                                  percentile(counts, count, 0.99, max), percentile(counts, count, 0.999, max), max) ;
+    }
+
+    //
+    // Return the bucket for a time
+    //
+    private static int bucket(long nanos) {
+        if (nanos < SubCount)
+            return (int)nanos ;
+
+        int exp = 63 - Long.numberOfLeadingZeros(nanos) ;
+        int sub = (int)(nanos >>> (exp - SubBits)) & (SubCount - 1) ;
+        return (exp - SubBits + 1) * SubCount + sub ;
+    }
+
+    //
+    // Return the largest time that falls in a bucket
+    //
+    private static long highest(int bucket) {
+        if (bucket < SubCount)
+            return bucket ;
+
+        int exp = bucket / SubCount + SubBits - 1 ;
+        int sub = bucket % SubCount ;
+        long lowest = (long)(SubCount + sub) << (exp - SubBits) ;
+        return lowest + (1L << (exp - SubBits)) - 1 ;
+    }
+
+    //
+    // Return the time that the given fraction of the recorded times were at or below
+    //
+    private static long percentile(long [] counts, long count, double fraction, long max) {
+        if (count == 0)
+            return 0 ;
+
+        long rank = Math.max(1, (long)Math.ceil(fraction * count)) ;
+        long seen = 0 ;
+        for(int i = 0 ; i < counts.length ; i++) {
+            seen += counts[i] ;
+            if (seen >= rank)
+                return Math.min(highest(i), max) ;
+        }
+
+        return max ;
+    }
+}
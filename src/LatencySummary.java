@@ -0,0 +1,55 @@
+import javax.management.ConstructorParameters;
+
+//
+// This class holds the count, mean and percentiles of a LatencyHistogram at one moment.
+// The JMX MXBean support turns the getters into the items of a composite value, so JConsole
+// shows each one by name.  All of the times are in nanoseconds.
+//
+public class LatencySummary {
+    private final long count_ ;
+    private final double mean_ ;
+    private final long p50_ ;
+    private final long p90_ ;
+    private final long p99_ ;
+    private final long p999_ ;
+    private final long max_ ;
+
+    @ConstructorParameters({"count", "mean", "p50", "p90", "p99", "p999", "max"})
+    public LatencySummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+        count_ = count ;
+        mean_ = mean ;
+        p50_ = p50 ;
+        p90_ = p90 ;
+        p99_ = p99 ;
+        p999_ = p999 ;
+        max_ = max ;
+    }
+
+    public long getCount() {
+        return count_ ;
+    }
+
+    public double getMean() {
+        return mean_ ;
+    }
+
+    public long getP50() {
+        return p50_ ;
+    }
+
+    public long getP90() {
+        return p90_ ;
+    }
+
+    public long getP99() {
+        return p99_ ;
+    }
+
+    public long getP999() {
+        return p999_ ;
+    }
+
+    public long getMax() {
+        return max_ ;
+    }
+}
@@ -0,0 +1,396 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//
+// This class implements a computer player that picks its move with Monte Carlo Tree Search.
+// Instead of searching every move, the player plays many random games (playouts) from the
+// current board and grows a tree of the moves that have done best so far.  The strength of the
+// player is set by its budget, either a number of playouts or a number of milliseconds per move.
+// A bigger budget gives a stronger but slower player, and this works on a board of any size.
+//
+// The search runs on the work stealing fork/join common pool.  Each task grows its own tree
+// from the current board with its own random number generator, and the visit counts of the first
+// moves are added together at the end.  The trees, the playout board and the list of empty
+// squares are kept between moves, so the playouts do not create any objects.
+//
+public class MctsPlayer extends Player {
+    //
+    // The exploration constant for the UCT formula.  Bigger values try the less promising
+    // moves more often.
+    //
+    private static final double Exploration = 1.4 ;
+
+    private final int iterations_ ;                 // The number of playouts per move, or 0 if a time budget is used
+    private final long millis_ ;                    // The time budget per move, or 0 if a playout budget is used
+    private final ForkJoinPool pool_ ;              // The pool that runs the playouts
+    private final Searcher [] searchers_ ;          // The state for each of the parallel tasks
+
+    //
+    // Create the MCTS player
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    iterations - the number of playouts per move, or 0 to use the time budget
+    //    millis - the time budget per move in milliseconds, used if iterations is 0
+    //
+    public MctsPlayer(GamePiece p, int iterations, long millis) throws IllegalArgumentException {
+        this(p, iterations, millis, new SplittableRandom().nextLong()) ;
+    }
+
+    //
+    // Create the MCTS player with a seed for its random number generators
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    iterations - the number of playouts per move, or 0 to use the time budget
+    //    millis - the time budget per move in milliseconds, used if iterations is 0
+    //    seed - the seed for the random number generators
+    //
+    public MctsPlayer(GamePiece p, int iterations, long millis, long seed) throws IllegalArgumentException {
+        super(p) ;
+
+        if (iterations <= 0 && millis <= 0) {
+            throw new IllegalArgumentException("the MCTS player needs a playout or a time budget") ;
+        }
+
+        iterations_ = Math.max(iterations, 0) ;
+        millis_ = millis ;
+        pool_ = ForkJoinPool.commonPool() ;
+
+        SplittableRandom random = new SplittableRandom(seed) ;
+        searchers_ = new Searcher[pool_.getParallelism()] ;
+        for(int i = 0 ; i < searchers_.length ; i++) {
+            searchers_[i] = new Searcher(random.split()) ;
+        }
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // Compute the next move for the computer player
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        return board.position(nextSquare(board)) ;
+    }
+
+    //
+    // Compute the next move as the index of the square to play
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        int rows = board.rows() ;
+        int cols = board.cols() ;
+        byte [] cells = new byte[rows * cols] ;
+        for(int row = 0 ; row < rows ; row++) {
+            for(int col = 0 ; col < cols ; col++) {
+                cells[row * cols + col] = (byte)Board.digit(board.getPiece(row * cols + col)) ;
+            }
+        }
+
+        //
+        // Split the playouts between the tasks, and run them on the pool
+        //
+        long deadline = (iterations_ == 0) ? System.nanoTime() + millis_ * 1000000 : 0 ;
+        int mover = Board.digit(getMyGamePiece()) ;
+
+        ForkJoinTask<?> [] tasks = new ForkJoinTask<?>[searchers_.length] ;
+        for(int i = 0 ; i < searchers_.length ; i++) {
+            Searcher searcher = searchers_[i] ;
+            int count = iterations_ / searchers_.length + ((i < iterations_ % searchers_.length) ? 1 : 0) ;
+            searcher.reset(cells, rows, cols, board.winLength(), mover) ;
+            tasks[i] = pool_.submit(() -> searcher.run(count, deadline)) ;
+        }
+
+        //
+        // Add up the visits of each first move, and play the one that was visited the most
+        //
+        long [] visits = new long[cells.length] ;
+        for(int i = 0 ; i < tasks.length ; i++) {
+            tasks[i].join() ;
+            searchers_[i].addRootVisits(visits) ;
+        }
+
+        int best = -1 ;
+        for(int square = 0 ; square < cells.length ; square++) {
+            if (cells[square] == 0 && (best == -1 || visits[square] > visits[best])) {
+                best = square ;
+            }
+        }
+
+        return best ;
+    }
+
+    //
+    // The search tree and playout state for one of the parallel tasks.  The tree is stored
+    // in arrays indexed by node number, and node 0 is the current board.  The arrays only grow,
+    // so after the first few moves the search does not create any objects.
+    //
+    private static class Searcher {
+        private final SplittableRandom random_ ;    // The random number generator for this task
+
+        private byte [] root_ ;                     // The board being searched, one digit per square
+        private byte [] cells_ ;                    // The board during a playout
+        private int [] empty_ ;                     // The empty squares during a playout
+        private int [] path_ ;                      // The nodes visited by the current playout
+        private int rows_ ;
+        private int cols_ ;
+        private int k_ ;
+        private int mover_ ;                        // The digit of the player to move on the root board
+        private int rootFilled_ ;                   // The number of squares played on the root board
+        private int filled_ ;                       // The number of squares played during a playout
+
+        private int [] move_ ;                      // The square played to reach each node
+        private int [] child_ ;                     // The first child of each node, or -1
+        private int [] sibling_ ;                   // The next child of the same parent, or -1
+        private int [] next_ ;                      // The next square to try when adding a child
+        private int [] visits_ ;                    // The number of playouts through each node
+        private float [] wins_ ;                    // The wins for the player that moved into each node
+        private int nodes_ ;                        // The number of nodes in use
+
+        Searcher(SplittableRandom random) {
+            random_ = random ;
+            root_ = new byte[0] ;
+            move_ = new int[1024] ;
+            child_ = new int[1024] ;
+            sibling_ = new int[1024] ;
+            next_ = new int[1024] ;
+            visits_ = new int[1024] ;
+            wins_ = new float[1024] ;
+        }
+
+        //
+        // Start a new search from the given board
+        //
+        void reset(byte [] cells, int rows, int cols, int k, int mover) {
+            if (root_.length != cells.length) {
+                root_ = new byte[cells.length] ;
+                cells_ = new byte[cells.length] ;
+                empty_ = new int[cells.length] ;
+                path_ = new int[cells.length + 1] ;
+            }
+
+            System.arraycopy(cells, 0, root_, 0, cells.length) ;
+            rows_ = rows ;
+            cols_ = cols ;
+            k_ = k ;
+            mover_ = mover ;
+
+            rootFilled_ = 0 ;
+            for(byte cell : cells) {
+                if (cell != 0) {
+                    rootFilled_++ ;
+                }
+            }
+
+            nodes_ = 0 ;
+            newNode(-1) ;
+        }
+
+        //
+        // Run the playouts, either the given count or until the deadline
+        //
+        void run(int count, long deadline) {
+            for(int i = 0 ; (deadline == 0) ? i < count : ((i & 63) != 0 || System.nanoTime() < deadline) ; i++) {
+                playout() ;
+            }
+        }
+
+        //
+        // Add the visits of the children of the root to the total for each square
+        //
+        void addRootVisits(long [] visits) {
+            for(int node = child_[0] ; node != -1 ; node = sibling_[node]) {
+                visits[move_[node]] += visits_[node] ;
+            }
+        }
+
+        //
+        // Run one playout: walk down the tree picking moves with UCT, add one new node,
+        // play random moves to the end of the game and record the result in every node walked.
+        //
+        private void playout() {
+            System.arraycopy(root_, 0, cells_, 0, root_.length) ;
+            filled_ = rootFilled_ ;
+
+            int node = 0 ;
+            int depth = 0 ;
+            int who = mover_ ;
+            int winner = -1 ;
+            path_[depth++] = 0 ;
+
+            //
+            // Walk down the tree while every move from a node has a child node
+            //
+            while (winner == -1) {
+                int square = nextUntried(node) ;
+                if (square != -1) {
+                    next_[node] = square + 1 ;
+                    int child = newNode(square) ;
+                    sibling_[child] = child_[node] ;
+                    child_[node] = child ;
+                    node = child ;
+                }
+                else {
+                    node = select(node) ;
+                    if (node == -1)
+                        break ;
+                }
+
+                path_[depth++] = node ;
+                winner = play(move_[node], who) ;
+                who = 3 - who ;
+
+                if (square != -1)
+                    break ;
+            }
+
+            //
+            // Finish the game with random moves
+            //
+            if (winner == -1) {
+                int count = 0 ;
+                for(int i = 0 ; i < cells_.length ; i++) {
+                    if (cells_[i] == 0) {
+                        empty_[count++] = i ;
+                    }
+                }
+
+                while (winner == -1 && count > 0) {
+                    int pick = random_.nextInt(count) ;
+                    int square = empty_[pick] ;
+                    empty_[pick] = empty_[--count] ;
+                    winner = play(square, who) ;
+                    who = 3 - who ;
+                }
+            }
+
+            //
+            // Record the result.  The player that moved into the root is the opponent of
+            // the player to move.
+            //
+            int moved = 3 - mover_ ;
+            for(int i = 0 ; i < depth ; i++) {
+                int n = path_[i] ;
+                visits_[n]++ ;
+                if (winner == moved) {
+                    wins_[n] += 1.0f ;
+                }
+                else if (winner == -1 || winner == 0) {
+                    wins_[n] += 0.5f ;
+                }
+                moved = 3 - moved ;
+            }
+        }
+
+        //
+        // Return the next empty square that does not have a child node yet, or -1
+        //
+        private int nextUntried(int node) {
+            for(int square = next_[node] ; square < cells_.length ; square++) {
+                if (cells_[square] == 0)
+                    return square ;
+            }
+
+            next_[node] = cells_.length ;
+            return -1 ;
+        }
+
+        //
+        // Pick the child with the best UCT score, or -1 if the node has no children
+        //
+        private int select(int node) {
+            double logn = Math.log(Math.max(visits_[node], 1)) ;
+            int best = -1 ;
+            double bestScore = Double.NEGATIVE_INFINITY ;
+
+            for(int child = child_[node] ; child != -1 ; child = sibling_[child]) {
+                int n = visits_[child] ;
+                double score = (n == 0) ? Double.POSITIVE_INFINITY : wins_[child] / n + Exploration * Math.sqrt(logn / n) ;
+                if (score > bestScore) {
+                    bestScore = score ;
+                    best = child ;
+                }
+            }
+
+            return best ;
+        }
+
+        //
+        // Play a square on the playout board.  Returns the player digit if this move won
+        // the game, 0 if the board is now full, or -1 if the game goes on.
+        //
+        private int play(int square, int who) {
+            cells_[square] = (byte)who ;
+            filled_++ ;
+
+            int row = square / cols_ ;
+            int col = square % cols_ ;
+            if (count(row, col, 0, 1, who) >= k_ || count(row, col, 1, 0, who) >= k_ ||
+                        count(row, col, 1, 1, who) >= k_ || count(row, col, 1, -1, who) >= k_)
+                return who ;
+
+            return (filled_ == cells_.length) ? 0 : -1 ;
+        }
+
+        //
+        // Count the pieces in a row through a square along a direction, in both directions
+        //
+        private int count(int row, int col, int drow, int dcol, int who) {
+            int total = 1 ;
+            for(int step = 1 ; step < k_ ; step++) {
+                int r = row + step * drow ;
+                int c = col + step * dcol ;
+                if (r < 0 || r >= rows_ || c < 0 || c >= cols_ || cells_[r * cols_ + c] != who)
+                    break ;
+                total++ ;
+            }
+
+            for(int step = 1 ; step < k_ ; step++) {
+                int r = row - step * drow ;
+                int c = col - step * dcol ;
+                if (r < 0 || r >= rows_ || c < 0 || c >= cols_ || cells_[r * cols_ + c] != who)
+                    break ;
+                total++ ;
+            }
+
+            return total ;
+        }
+
+        //
+        // Add a node to the tree, growing the arrays if they are full
+        //
+        private int newNode(int square) {
+            if (nodes_ == move_.length) {
+                int size = nodes_ * 2 ;
+                move_ = Arrays.copyOf(move_, size) ;
+                child_ = Arrays.copyOf(child_, size) ;
+                sibling_ = Arrays.copyOf(sibling_, size) ;
+                next_ = Arrays.copyOf(next_, size) ;
+                visits_ = Arrays.copyOf(visits_, size) ;
+                wins_ = Arrays.copyOf(wins_, size) ;
+            }
+
+            int node = nodes_++ ;
+            move_[node] = square ;
+            child_[node] = -1 ;
+            sibling_[node] = -1 ;
+            next_[node] = 0 ;
+            visits_[node] = 0 ;
+            wins_[node] = 0 ;
+            return node ;
+        }
+    }
+}
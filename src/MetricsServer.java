@@ -0,0 +1,159 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//
+// This class serves the live statistics of a run in the Prometheus text format, so a long
+// tournament can be scraped by Prometheus or just watched with curl.  The page is built from the
+// GameStats when it is asked for.  The counters are LongAdders and the histograms are copied
+// before they are summarized, so a scrape only reads what the game threads write and never makes
+// them wait.  The server runs on its own thread, and only listens on the loopback address.
+//
+// The games per second is measured by the server's thread every few seconds rather than
+// when a page is asked for, so any number of scrapers see the same rate.
+//
+public class MetricsServer {
+    public static final String Context = "/metrics" ;
+    public static final int RateSeconds = 5 ;       // The time the games per second is measured over
+
+    private final HttpServer server_ ;              // The HTTP server
+    private final ScheduledExecutorService thread_ ;    // The thread that answers the scrapes and measures the rate
+    private final GameStats stats_ ;                // The statistics served
+    private long lastGames_ ;                       // The games finished when the rate was last measured
+    private long lastTime_ ;                        // The time the rate was last measured in nanoseconds
+    private volatile double rate_ ;                 // The games finished per second over the last RateSeconds
+
+    //
+    // Create the server and start it
+    //
+    // Arguments:
+    //    port - the port to listen on
+    //    stats - the statistics to serve
+    //
+    public MetricsServer(int port, GameStats stats) throws IOException {
+        stats_ = stats ;
+        lastTime_ = System.nanoTime() ;
+
+        thread_ = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics") ;
+            t.setDaemon(true) ;
+            return t ;
+        }) ;
+        thread_.scheduleAtFixedRate(this::measureRate, RateSeconds, RateSeconds, TimeUnit.SECONDS) ;
+
+        server_ = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0) ;
+        server_.createContext(Context, this::handle) ;
+        server_.setExecutor(thread_) ;
+        server_.start() ;
+    }
+
+    //
+    // Return the port the server is listening on
+    //
+    public int port() {
+        return server_.getAddress().getPort() ;
+    }
+
+    //
+    // Stop the server
+    //
+    public void stop() {
+        server_.stop(0) ;
+        thread_.shutdownNow() ;
+    }
+
+    //
+    // Measure the games finished per second since the last time it was measured
+    //
+    private void measureRate() {
+        long now = System.nanoTime() ;
+        long finished = stats_.getGamesFinished() ;
+        rate_ = (finished - lastGames_) / Math.max(1.0e-9, (now - lastTime_) / 1.0e9) ;
+        lastGames_ = finished ;
+        lastTime_ = now ;
+    }
+
+    //
+    // Answer one scrape
+    //
+    private void handle(HttpExchange exchange) throws IOException {
+        byte [] body = page().getBytes(StandardCharsets.UTF_8) ;
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8") ;
+        exchange.sendResponseHeaders(200, body.length) ;
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body) ;
+        }
+    }
+
+    //
+    // Build the metrics page
+    //
+    private String page() {
+        long finished = stats_.getGamesFinished() ;
+
+        StringBuilder page = new StringBuilder() ;
+
+        counter(page, "tictactoe_games_started_total", "The number of games started", stats_.getGamesStarted()) ;
+        counter(page, "tictactoe_games_finished_total", "The number of games finished", finished) ;
+
+        page.append("# HELP tictactoe_games_won_total The number of games won by each side\n") ;
+        page.append("# TYPE tictactoe_games_won_total counter\n") ;
+        page.append("tictactoe_games_won_total{piece=\"X\"} ").append(stats_.getXWon()).append('\n') ;
+        page.append("tictactoe_games_won_total{piece=\"O\"} ").append(stats_.getOWon()).append('\n') ;
+
+        counter(page, "tictactoe_games_tied_total", "The number of games tied", stats_.getTied()) ;
+
+        page.append("# HELP tictactoe_games_per_second The games finished per second over the last ").append(RateSeconds).append(" seconds\n") ;
+        page.append("# TYPE tictactoe_games_per_second gauge\n") ;
+        page.append("tictactoe_games_per_second ").append(rate_).append('\n') ;
+
+        page.append("# HELP tictactoe_move_latency_seconds The time taken by Player.nextMove\n") ;
+        page.append("# TYPE tictactoe_move_latency_seconds summary\n") ;
+        for(Map.Entry<String, LatencySummary> entry : stats_.getMoveLatency().entrySet()) {
+            summary(page, "tictactoe_move_latency_seconds", "player=\"" + entry.getKey() + "\"", entry.getValue()) ;
+        }
+
+        page.append("# HELP tictactoe_has_won_latency_seconds The time taken by Board.hasWon\n") ;
+        page.append("# TYPE tictactoe_has_won_latency_seconds summary\n") ;
+        summary(page, "tictactoe_has_won_latency_seconds", null, stats_.getHasWonLatency()) ;
+
+        return page.toString() ;
+    }
+
+    //
+    // Add a counter with no labels to the page
+    //
+    private static void counter(StringBuilder page, String name, String help, long value) {
+        page.append("# HELP ").append(name).append(' ').append(help).append('\n') ;
+        page.append("# TYPE ").append(name).append(" counter\n") ;
+        page.append(name).append(' ').append(value).append('\n') ;
+    }
+
+    //
+    // Add the quantiles, sum and count of a latency summary to the page, in seconds
+    //
+    private static void summary(StringBuilder page, String name, String labels, LatencySummary summary) {
+        String prefix = (labels == null) ? "" : labels + "," ;
+        String suffix = (labels == null) ? " " : "{" + labels + "} " ;
+
+        quantile(page, name, prefix, "0.5", summary.getP50()) ;
+        quantile(page, name, prefix, "0.9", summary.getP90()) ;
+        quantile(page, name, prefix, "0.99", summary.getP99()) ;
+        quantile(page, name, prefix, "0.999", summary.getP999()) ;
+        page.append(name).append("_sum").append(suffix).append(summary.getMean() * summary.getCount() / 1.0e9).append('\n') ;
+        page.append(name).append("_count").append(suffix).append(summary.getCount()).append('\n') ;
+    }
+
+    private static void quantile(StringBuilder page, String name, String prefix, String q, long nanos) {
+        page.append(name).append("{").append(prefix).append("quantile=\"").append(q).append("\"} ").append(nanos / 1.0e9).append('\n') ;
+    }
+}
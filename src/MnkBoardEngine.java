@@ -0,0 +1,239 @@
+//
+// A board engine for the general m,n,k game.  The board has any number of rows and columns,
+// and a player wins by getting k pieces in a row horizontally, vertically, or diagonally.
+//
+// Every run of k squares on the board where a win is possible is a line.  The engine
+// keeps a count of the X pieces and the O pieces in each line, and updates only the lines that
+// go through a square when a piece is placed on that square.  This means checking for a win
+// after a move costs O(k) rather than a scan of every line on the board.
+//
+public class MnkBoardEngine implements IBoardEngine {
+    //
+    // The four directions a line can run as (row step, column step)
+    //
+    private static final int [][] Directions = new int[][] {
+        new int[] { 0, 1 },                         // Across a row
+        new int[] { 1, 0 },                         // Down a column
+        new int[] { 1, 1 },                         // Down and to the right
+        new int[] { 1, -1 },                        // Down and to the left
+    } ;
+
+    private final int rows_ ;                       // The number of rows on the board
+    private final int cols_ ;                       // The number of columns on the board
+    private final int k_ ;                          // The number in a row needed to win
+
+    private final GamePiece [] board_ ;             // The pieces on the board, one per square
+    private final int [] lineStart_ ;               // The first square in each line
+    private final int [] lineStep_ ;                // The index step between squares in each line
+    private final int [][] squareLines_ ;           // The lines that go through each square
+    private final BoardPosition [][] lineSquares_ ; // The squares in each line, built when first needed
+
+    private final int [] xcount_ ;                  // The number of X pieces in each line
+    private final int [] ocount_ ;                  // The number of O pieces in each line
+    private int played_ ;                           // The number of squares played
+    private int winner_ ;                           // The line that was filled, or -1
+
+    //
+    // Create a new empty board
+    //
+    // Arguments:
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //
+    public MnkBoardEngine(int rows, int cols, int k) throws IllegalArgumentException {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("the board must have at least one row and one column") ;
+        }
+
+        if (k < 1 || (k > rows && k > cols)) {
+            throw new IllegalArgumentException("the number in a row to win, " + k + ", does not fit on a " + rows + "x" + cols + " board") ;
+        }
+
+        rows_ = rows ;
+        cols_ = cols ;
+        k_ = k ;
+        board_ = new GamePiece[rows * cols] ;
+
+        //
+        // Count the lines so the line arrays can be sized, then fill them in
+        //
+        int total = 0 ;
+        for(int [] dir : Directions) {
+            total += countStarts(dir[0], dir[1]) ;
+        }
+
+        lineStart_ = new int[total] ;
+        lineStep_ = new int[total] ;
+        lineSquares_ = new BoardPosition[total][] ;
+        xcount_ = new int[total] ;
+        ocount_ = new int[total] ;
+
+        int [] perSquare = new int[board_.length] ;
+        int line = 0 ;
+        for(int [] dir : Directions) {
+            for(int row = 0 ; row < rows ; row++) {
+                for(int col = 0 ; col < cols ; col++) {
+                    if (isStart(row, col, dir[0], dir[1])) {
+                        lineStart_[line] = row * cols + col ;
+                        lineStep_[line] = dir[0] * cols + dir[1] ;
+                        for(int entry = 0 ; entry < k ; entry++) {
+                            perSquare[lineStart_[line] + entry * lineStep_[line]]++ ;
+                        }
+                        line++ ;
+                    }
+                }
+            }
+        }
+
+        squareLines_ = new int[board_.length][] ;
+        for(int index = 0 ; index < board_.length ; index++) {
+            squareLines_[index] = new int[perSquare[index]] ;
+            perSquare[index] = 0 ;
+        }
+
+        for(line = 0 ; line < total ; line++) {
+            for(int entry = 0 ; entry < k ; entry++) {
+                int index = lineStart_[line] + entry * lineStep_[line] ;
+                squareLines_[index][perSquare[index]++] = line ;
+            }
+        }
+
+        clear() ;
+    }
+
+    public int rows() {
+        return rows_ ;
+    }
+
+    public int cols() {
+        return cols_ ;
+    }
+
+    public int winLength() {
+        return k_ ;
+    }
+
+    public final void clear() {
+        for(int i = 0 ; i < board_.length ; i++) {
+            board_[i] = GamePiece.EMPTY ;
+        }
+
+        for(int line = 0 ; line < xcount_.length ; line++) {
+            xcount_[line] = 0 ;
+            ocount_[line] = 0 ;
+        }
+
+        played_ = 0 ;
+        winner_ = -1 ;
+    }
+
+    public int totalPlayed() {
+        return played_ ;
+    }
+
+    public GamePiece getPiece(int index) {
+        return board_[index] ;
+    }
+
+    public void setPiece(int index, GamePiece gp) {
+        assert board_[index] == GamePiece.EMPTY ;
+
+        if (gp == GamePiece.EMPTY)
+            return ;
+
+        board_[index] = gp ;
+        played_++ ;
+
+        //
+        // Update the count for each line that goes through this square.  If a line is
+        // now full of this game piece, the game has been won.
+        //
+        int [] counts = (gp == GamePiece.X) ? xcount_ : ocount_ ;
+        for(int line : squareLines_[index]) {
+            if (++counts[line] == k_ && winner_ == -1) {
+                winner_ = line ;
+            }
+        }
+    }
+
+    public long getMask(GamePiece p) throws IllegalStateException {
+        if (board_.length > 64) {
+            throw new IllegalStateException("a bit mask is not available on a board with more than 64 squares") ;
+        }
+
+        long mask = 0 ;
+        for(int index = 0 ; index < board_.length ; index++) {
+            if (board_[index] == p) {
+                mask |= 1L << index ;
+            }
+        }
+
+        return mask ;
+    }
+
+    public int findTwo(GamePiece p) {
+        int [] mine = (p == GamePiece.X) ? xcount_ : ocount_ ;
+        int [] theirs = (p == GamePiece.X) ? ocount_ : xcount_ ;
+
+        for(int line = 0 ; line < mine.length ; line++) {
+            if (mine[line] == k_ - 1 && theirs[line] == 0) {
+                for(int entry = 0 ; entry < k_ ; entry++) {
+                    int index = lineStart_[line] + entry * lineStep_[line] ;
+                    if (board_[index] == GamePiece.EMPTY) {
+                        return index ;
+                    }
+                }
+            }
+        }
+
+        return -1 ;
+    }
+
+    public int winningLine() {
+        return winner_ ;
+    }
+
+    public int lineCount() {
+        return lineStart_.length ;
+    }
+
+    public BoardPosition [] lineSquares(int line) {
+        if (lineSquares_[line] == null) {
+            BoardPosition [] squares = new BoardPosition[k_] ;
+            for(int entry = 0 ; entry < k_ ; entry++) {
+                int index = lineStart_[line] + entry * lineStep_[line] ;
+                squares[entry] = BoardPosition.of(index / cols_, index % cols_) ;
+            }
+            lineSquares_[line] = squares ;
+        }
+
+        return lineSquares_[line] ;
+    }
+
+    //
+    // Return true if a line of k squares starting at the given square and running in the
+    // given direction fits on the board
+    //
+    private boolean isStart(int row, int col, int drow, int dcol) {
+        int lastrow = row + (k_ - 1) * drow ;
+        int lastcol = col + (k_ - 1) * dcol ;
+        return lastrow >= 0 && lastrow < rows_ && lastcol >= 0 && lastcol < cols_ ;
+    }
+
+    //
+    // Count the squares where a line running in the given direction can start
+    //
+    private int countStarts(int drow, int dcol) {
+        int total = 0 ;
+        for(int row = 0 ; row < rows_ ; row++) {
+            for(int col = 0 ; col < cols_ ; col++) {
+                if (isStart(row, col, drow, dcol)) {
+                    total++ ;
+                }
+            }
+        }
+
+        return total ;
+    }
+}
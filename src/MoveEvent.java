@@ -0,0 +1,30 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+//
+// The Java Flight Recorder event for one move.  The duration of the event is the time the
+// player took to decide on the move.
+//
+@Name("tictactoe.Move")
+@Label("Move")
+@Category("Tic-Tac-Toe")
+@Description("A player chose a move, the duration is the time taken by Player.nextMove")
+public class MoveEvent extends jdk.jfr.Event {
+    @Label("Player Type")
+    public String playerType ;
+
+    @Label("Piece")
+    public String piece ;
+
+    @Label("Row")
+    public int row ;
+
+    @Label("Column")
+    public int col ;
+
+    @Label("Branch")
+    @Description("smart or random for a computer player, empty for the other players")
+    public String branch ;
+}
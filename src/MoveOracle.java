@@ -0,0 +1,232 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+//
+// This class is an HTTP service that answers "what should I play here?" for the classic
+// board, so other programs can use the computer players without linking this code.  A request
+// is
+//
+//    GET /move?board=X-O-X----&skill=expert
+//
+// The board is 9 characters, row by row, each X, O or one of - . _ for an empty square.  The
+// player to move is worked out from the number of pieces, X moves first.  The skill is novice,
+// intermediate, expert or perfect.  The answer is one line of JSON such as
+//
+//    {"square":4,"row":1,"col":1}
+//
+// The service only listens on the loopback address, so only programs on the same machine can
+// use it.  Each request is handled on its own virtual thread.  The service keeps no state between
+// requests, and the players are created once for each skill and piece and shared by all of the
+// requests.  The computer players draw their random numbers from the thread's own
+// ThreadLocalRandom and the perfect player's tables are safe to share, so no request ever waits
+// on a lock.  The boards are kept in a pool and reused.
+//
+public class MoveOracle {
+    public static final String Context = "/move" ;
+    public static final int DefaultPort = 8080 ;
+
+    //
+    // The skill levels, and the smart move percentage of each ComputerPlayer skill
+    //
+    public static final String [] Skills = new String[] { "novice", "intermediate", "expert", "perfect" } ;
+    private static final double [] Best = new double[] { 0.3, 0.6, 1.0, 0.0 } ;
+
+    private final HttpServer server_ ;              // The HTTP server
+    private final Player [][] players_ ;            // The shared players, indexed by skill and piece (0 for X, 1 for O)
+    private final ConcurrentLinkedQueue<Board> boards_ ;    // The boards not being used by a request
+
+    //
+    // Create the service.  It listens on the port but does not answer requests until it
+    // is started.
+    //
+    // Arguments:
+    //    port - the port to listen on, 0 for any free port
+    //
+    public MoveOracle(int port) throws IOException {
+        players_ = new Player[Skills.length][2] ;
+        for(int skill = 0 ; skill < Skills.length ; skill++) {
+            if (Skills[skill].equals("perfect")) {
+                players_[skill][0] = new PerfectPlayer(GamePiece.X) ;
+                players_[skill][1] = new PerfectPlayer(GamePiece.O) ;
+            }
+            else {
+                players_[skill][0] = ComputerPlayer.shared(GamePiece.X, Best[skill]) ;
+                players_[skill][1] = ComputerPlayer.shared(GamePiece.O, Best[skill]) ;
+            }
+        }
+        boards_ = new ConcurrentLinkedQueue<Board>() ;
+
+        server_ = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096) ;
+        server_.setExecutor(Executors.newVirtualThreadPerTaskExecutor()) ;
+    }
+
+    //
+    // Start answering requests
+    //
+    public void start() {
+        server_.createContext(Context, this::handle) ;
+        server_.start() ;
+    }
+
+    //
+    // Return the port the service is listening on
+    //
+    public int port() {
+        return server_.getAddress().getPort() ;
+    }
+
+    public void stop() {
+        server_.stop(0) ;
+    }
+
+    //
+    // Answer one request
+    //
+    private void handle(HttpExchange exchange) throws IOException {
+        String board = null ;
+        String skill = null ;
+
+        String query = exchange.getRequestURI().getRawQuery() ;
+        if (query != null) {
+            for(String param : query.split("&")) {
+                if (param.startsWith("board=")) {
+                    board = param.substring(6) ;
+                }
+                else if (param.startsWith("skill=")) {
+                    skill = param.substring(6) ;
+                }
+            }
+        }
+
+        int status = 200 ;
+        String body ;
+        try {
+            int square = move(board, (skill == null) ? "expert" : skill) ;
+            body = "{\"square\":" + square + ",\"row\":" + (square / 3) + ",\"col\":" + (square % 3) + "}\n" ;
+        }
+        catch(IllegalArgumentException ex) {
+            status = 400 ;
+            body = "{\"error\":\"" + ex.getMessage() + "\"}\n" ;
+        }
+
+        byte [] bytes = body.getBytes(StandardCharsets.US_ASCII) ;
+        exchange.getResponseHeaders().set("Content-Type", "application/json") ;
+        exchange.sendResponseHeaders(status, bytes.length) ;
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes) ;
+        }
+    }
+
+    //
+    // Return the square the player of the given skill would play on a board
+    //
+    // Arguments:
+    //    text - the board, 9 characters row by row
+    //    skill - the skill of the player
+    //
+    public int move(String text, String skill) throws IllegalArgumentException {
+        int which = -1 ;
+        for(int i = 0 ; i < Skills.length ; i++) {
+            if (Skills[i].equals(skill)) {
+                which = i ;
+            }
+        }
+
+        if (which == -1) {
+            throw new IllegalArgumentException("the skill must be one of " + String.join(", ", Skills)) ;
+        }
+
+        if (text == null || text.length() != 9) {
+            throw new IllegalArgumentException("the board must be 9 characters of X, O and - for an empty square") ;
+        }
+
+        //
+        // Build the board index from the text, counting the pieces to find who moves next
+        //
+        int index = 0 ;
+        int xcount = 0 ;
+        int ocount = 0 ;
+        for(int square = 8 ; square >= 0 ; square--) {
+            char ch = text.charAt(square) ;
+            int digit ;
+            if (ch == 'X' || ch == 'x') {
+                digit = 1 ;
+                xcount++ ;
+            }
+            else if (ch == 'O' || ch == 'o') {
+                digit = 2 ;
+                ocount++ ;
+            }
+            else if (ch == '-' || ch == '.' || ch == '_') {
+                digit = 0 ;
+            }
+            else {
+                throw new IllegalArgumentException("the board must be 9 characters of X, O and - for an empty square") ;
+            }
+            index = index * 3 + digit ;
+        }
+
+        if (xcount != ocount && xcount != ocount + 1) {
+            throw new IllegalArgumentException("the board does not have a valid number of X and O pieces") ;
+        }
+
+        Board board = boards_.poll() ;
+        if (board == null) {
+            board = new Board() ;
+        }
+
+        try {
+            board.decode(index) ;
+            if (board.hasWon() != null) {
+                throw new IllegalArgumentException("the game is already over") ;
+            }
+
+            Player player = players_[which][(xcount == ocount) ? 0 : 1] ;
+            return player.nextSquare(board) ;
+        }
+        finally {
+            boards_.offer(board) ;
+        }
+    }
+
+    //
+    // Run the move oracle service
+    //
+    // Arguments:
+    //   --port number              ' the port to listen on, default 8080
+    //
+    static public void main(String[] args) {
+        int port = DefaultPort ;
+
+        if (args.length == 2 && args[0].equals("--port")) {
+            try {
+                port = Integer.parseInt(args[1]) ;
+            }
+            catch(NumberFormatException ex) {
+                System.err.println("the value '" + args[1] + "' following the --port argument is not a valid integer") ;
+                System.exit(1) ;
+            }
+        }
+        else if (args.length != 0) {
+            System.err.println("usage: MoveOracle [--port n]") ;
+            System.exit(1) ;
+        }
+
+        try {
+            MoveOracle oracle = new MoveOracle(port) ;
+            oracle.start() ;
+            System.out.println("answering moves on http://localhost:" + oracle.port() + Context + "?board=---------&skill=expert") ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not start the move oracle on port " + port + " - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+//
+// A display that shows nothing.  This is used when the computer plays itself for a large
+// number of games and only the final totals are wanted.  The GameMgr does not call this display
+// for each game at all, so it costs nothing.  It can't be used with a human player since there is
+// no way to ask for a move.
+//
+public class NullDisplay implements IDisplay {
+    public void newGame(int which, int total) {
+    }
+
+    public void updateBoardDisplay(Board b) {
+    }
+
+    public void displayMessage(String str) {
+    }
+
+    public boolean alwaysUpdateBoard() {
+        return false ;
+    }
+
+    public void showWon(Board.GameWonInfo won, Board board) {
+    }
+
+    public void showTotal(boolean done, int xwon, int owon, int tied) {
+    }
+
+    public BoardPosition getMove(Board b) {
+        throw new IllegalStateException("a human player can't play with no display") ;
+    }
+}
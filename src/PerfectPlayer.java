@@ -0,0 +1,284 @@
+//
+// This class implements a computer player that never loses on the classic 3x3 board.  The
+// move is chosen with a negamax search using alpha-beta pruning.  Every position searched is
+// saved in a transposition table keyed on the board state, so after the first few games almost
+// every move is answered from the table and a move costs a few microseconds.
+//
+// The search works directly on the X and O bit masks from the board, so no board objects
+// are created while searching.  The transposition table is shared by all perfect players.  Each
+// entry is a single int so entries can be shared between threads without locking.
+//
+// Positions are stored in the table under their canonical form (see Symmetry), so all eight
+// rotations and reflections of a position share one entry.  The best move for each canonical
+// position is also saved, and is mapped back through the transform to the board being played.
+//
+public class PerfectPlayer extends Player {
+    //
+    // The kinds of scores stored in the transposition table
+    //
+    private static final int Exact = 1 ;            // The score is the exact value of the position
+    private static final int Lower = 2 ;            // The score is a lower bound (the search failed high)
+    private static final int Upper = 3 ;            // The score is an upper bound (the search failed low)
+
+    //
+    // A score larger than any real score.  A win is scored as one plus the number of empty
+    // squares left, so faster wins and slower losses are preferred.
+    //
+    private static final int Infinity = 100 ;
+
+    //
+    // The order the squares are tried: the center, then the corners, then the edges.  Good
+    // moves first means more of the search is pruned.
+    //
+    private static final int [] MoveOrder = new int[] { 4, 0, 2, 6, 8, 1, 3, 5, 7 } ;
+
+    //
+    // For each of the 512 possible masks, true if the mask contains a complete line
+    //
+    private static final boolean [] Wins = new boolean[BitBoardEngine.FullMask + 1] ;
+
+    //
+    // The transposition table.  The key is the canonical mask of the player to move in the low
+    // 9 bits and the canonical mask of the other player in the high 9 bits.  Each entry holds the kind of
+    // score above bits 8 and the score plus Infinity in the low 8 bits.  Zero means no entry.
+    //
+    private static final int [] table_ = new int[1 << 18] ;
+
+    //
+    // The best square plus one for the player to move on each canonical board, keyed the
+    // same way as the transposition table.  Zero means the move has not been found yet.
+    //
+    private static final byte [] moves_ = new byte[1 << 18] ;
+
+    //
+    // The symmetries of the classic board
+    //
+    private static final Symmetry Sym = Symmetry.forSide(3) ;
+
+    static {
+        for(int mask = 0 ; mask <= BitBoardEngine.FullMask ; mask++) {
+            for(int line : BitBoardEngine.LineMasks) {
+                if ((mask & line) == line) {
+                    Wins[mask] = true ;
+                }
+            }
+        }
+    }
+
+    //
+    // Create the perfect player
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //
+    public PerfectPlayer(GamePiece p) throws IllegalArgumentException {
+        super(p) ;
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // The search only knows the classic 3x3 board
+    //
+    public boolean canPlay(Board board) {
+        return board.rows() == 3 && board.cols() == 3 && board.winLength() == 3 ;
+    }
+
+    //
+    // Compute the next move for the computer player
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        return board.position(nextSquare(board)) ;
+    }
+
+    //
+    // Compute the next move as the index of the square to play
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        return move(board.getMask(getMyGamePiece()), board.getMask(getOpponentGamePiece())) ;
+    }
+
+    //
+    // The tables are safe to share between threads
+    //
+    public boolean isShareable() {
+        return true ;
+    }
+
+    //
+    // Compute the next move for many boards straight from the board indexes, without
+    // decoding them into a board
+    //
+    // Arguments:
+    //    board - a classic board, not used
+    //    boards - the indexes of the boards
+    //    from - the first board to compute a move for
+    //    to - one past the last board
+    //    moves - filled in with the move for each board, or -1 if the game is over
+    //
+    protected void nextMoves(Board board, int [] boards, int from, int to, int [] moves) throws IllegalArgumentException {
+        if (!canPlay(board)) {
+            throw new IllegalArgumentException("the perfect player only plays on the classic board") ;
+        }
+
+        int mine = Board.digit(getMyGamePiece()) ;
+        for(int i = from ; i < to ; i++) {
+            int rest = boards[i] ;
+            if (rest < 0 || rest >= Board.indexCount(9)) {
+                throw new IllegalArgumentException("the value " + rest + " is not a valid board index") ;
+            }
+
+            //
+            // Split the index into the masks for this player and the other player
+            //
+            int me = 0 ;
+            int them = 0 ;
+            for(int square = 0 ; square < 9 ; square++) {
+                int digit = rest % 3 ;
+                if (digit == mine) {
+                    me |= 1 << square ;
+                }
+                else if (digit != 0) {
+                    them |= 1 << square ;
+                }
+                rest /= 3 ;
+            }
+
+            if (Wins[me] || Wins[them] || (me | them) == BitBoardEngine.FullMask) {
+                moves[i] = -1 ;
+            }
+            else {
+                moves[i] = move(me, them) ;
+            }
+        }
+    }
+
+    //
+    // Return the square to play for the player to move
+    //
+    // Arguments:
+    //    me - the mask of the squares held by the player to move
+    //    them - the mask of the squares held by the other player
+    //
+    private static int move(long me, long them) {
+        //
+        // Look up the move for the canonical board, and find it if this is the first time
+        //
+        int t = Sym.canonical(me, them) ;
+        int cme = (int)Sym.applyMask(t, me) ;
+        int cthem = (int)Sym.applyMask(t, them) ;
+        int key = cme | (cthem << 9) ;
+
+        int move = moves_[key] - 1 ;
+        if (move == -1) {
+            move = bestMove(cme, cthem) ;
+            moves_[key] = (byte)(move + 1) ;
+        }
+
+        return Sym.invert(t, move) ;
+    }
+
+    //
+    // Find the best square for the player to move.  The first square in MoveOrder with
+    // the best score is returned, so the same board always gives the same move.
+    //
+    // Arguments:
+    //    me - the mask of the squares held by the player to move
+    //    them - the mask of the squares held by the other player
+    //
+    // Returns the index of the square to play, or -1 if the board is full
+    //
+    static int bestMove(int me, int them) {
+        int best = -1 ;
+        int alpha = -Infinity ;
+
+        for(int index : MoveOrder) {
+            int bit = 1 << index ;
+            if (((me | them) & bit) != 0)
+                continue ;
+
+            int score = -search(them, me | bit, -Infinity, -alpha) ;
+            if (best == -1 || score > alpha) {
+                best = index ;
+                alpha = score ;
+            }
+        }
+
+        return best ;
+    }
+
+    //
+    // Compute the score of a position for the player to move using negamax with
+    // alpha-beta pruning.  The other player has just moved.
+    //
+    // Arguments:
+    //    me - the mask of the squares held by the player to move
+    //    them - the mask of the squares held by the player that just moved
+    //    alpha - the score the player to move is already sure of
+    //    beta - the score the other player is already sure of
+    //
+    static int search(int me, int them, int alpha, int beta) {
+        int empty = BitBoardEngine.FullMask & ~(me | them) ;
+
+        //
+        // If the player that just moved has won, this position is lost
+        //
+        if (Wins[them])
+            return -(1 + Integer.bitCount(empty)) ;
+
+        if (empty == 0)
+            return 0 ;
+
+        int t = Sym.canonical(me, them) ;
+        int key = (int)Sym.applyMask(t, me) | ((int)Sym.applyMask(t, them) << 9) ;
+        int entry = table_[key] ;
+        if (entry != 0) {
+            int kind = entry >>> 8 ;
+            int score = (entry & 0xFF) - Infinity ;
+
+            if (kind == Exact || (kind == Lower && score >= beta) || (kind == Upper && score <= alpha))
+                return score ;
+        }
+
+        int start = alpha ;
+        int best = -Infinity ;
+        for(int index : MoveOrder) {
+            int bit = 1 << index ;
+            if ((empty & bit) == 0)
+                continue ;
+
+            int score = -search(them, me | bit, -beta, -alpha) ;
+            if (score > best) {
+                best = score ;
+                if (best > alpha) {
+                    alpha = best ;
+                    if (alpha >= beta)
+                        break ;
+                }
+            }
+        }
+
+        int kind = Exact ;
+        if (best <= start) {
+            kind = Upper ;
+        }
+        else if (best >= beta) {
+            kind = Lower ;
+        }
+        table_[key] = (kind << 8) | (best + Infinity) ;
+
+        return best ;
+    }
+}
@@ -1,73 +1,187 @@
-
-//
-// This abstract class represents the base for an class that represents
-// a player in the game.  There are expected to be other player classes that
-// extend this class to implement specific behaviours as a player.
-//
-public abstract class Player {
-    private GamePiece p_ ;
-    private IDisplay display_ ;
-
-    //
-    // Create a new player
-    //
-    // Arguments:
-    //    p - the game piece for this player
-    //
-    public Player(GamePiece p) throws IllegalArgumentException {
-        if (p == GamePiece.EMPTY) {
-            throw new IllegalArgumentException("invalid game piece value for a player") ;
-        }        
-        this.p_ = p ;
-    }
-
-    //
-    // Return my game piece value
-    //
-    public GamePiece getMyGamePiece() {
-        return this.p_ ;
-    }
-
-    //
-    // Return my opponents game piece value
-    //
-    public GamePiece getOpponentGamePiece() {
-        return (this.p_ == GamePiece.X) ? GamePiece.O : GamePiece.X ;
-    }
-
-    //
-    // Set the display associated with this player.  This probably should be in 
-    // the constructor.  However, I am too lazy to fix the initiailzation ordering
-    // problem in the main class (GameMgr) argument processing.
-    //
-    // Arguments:
-    //    disp - the display for the game
-    //
-    public void setDisplay(IDisplay disp) {
-        display_ = disp ;
-    }
-
-    //
-    // Get the display assocaited with this player
-    //
-    protected IDisplay getDisplay() {
-        return display_ ;
-    }
-
-    //
-    // Returns if the player requires the board to be shown before its move.
-    // A computer player does not.
-    //    
-    public abstract boolean showBoard() ;
-
-    //
-    // Compute the next move for the computer player.  It is expected that the
-    // player objects store NO game state and that the board object provided here
-    // is sufficient to compute next moves.
-    //
-    // Arguments:
-    //    board - the board to evalute for the next move
-    //
-    public abstract BoardPosition nextMove(Board board) ;
-
-}
+import java.util.stream.IntStream;
+
+
+//
+// This abstract class represents the base for an class that represents
+// a player in the game.  There are expected to be other player classes that
+// extend this class to implement specific behaviours as a player.
+//
+public abstract class Player {
+    //
+    // The number of boards each thread takes at a time in nextMovesParallel
+    //
+    public static final int BatchSize = 4096 ;
+
+    private GamePiece p_ ;
+    private IDisplay display_ ;
+
+    //
+    // Create a new player
+    //
+    // Arguments:
+    //    p - the game piece for this player
+    //
+    public Player(GamePiece p) throws IllegalArgumentException {
+        if (p == GamePiece.EMPTY) {
+            throw new IllegalArgumentException("invalid game piece value for a player") ;
+        }        
+        this.p_ = p ;
+    }
+
+    //
+    // Return my game piece value
+    //
+    public GamePiece getMyGamePiece() {
+        return this.p_ ;
+    }
+
+    //
+    // Return my opponents game piece value
+    //
+    public GamePiece getOpponentGamePiece() {
+        return (this.p_ == GamePiece.X) ? GamePiece.O : GamePiece.X ;
+    }
+
+    //
+    // Set the display associated with this player.  This probably should be in 
+    // the constructor.  However, I am too lazy to fix the initiailzation ordering
+    // problem in the main class (GameMgr) argument processing.
+    //
+    // Arguments:
+    //    disp - the display for the game
+    //
+    public void setDisplay(IDisplay disp) {
+        display_ = disp ;
+    }
+
+    //
+    // Get the display assocaited with this player
+    //
+    protected IDisplay getDisplay() {
+        return display_ ;
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //    
+    public abstract boolean showBoard() ;
+
+    //
+    // Returns if the player knows how to play on the given board.  Most players can play
+    // on a board of any size.  Players that only know the classic board override this.
+    //
+    // Arguments:
+    //    board - the board the games will be played on
+    //
+    public boolean canPlay(Board board) {
+        return true ;
+    }
+
+    //
+    // Compute the next move for the computer player.  It is expected that the
+    // player objects store NO game state and that the board object provided here
+    // is sufficient to compute next moves.
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public abstract BoardPosition nextMove(Board board) ;
+
+    //
+    // Compute the next move as the index of the square to play (row * cols() + col).  This is
+    // the path the GameMgr uses, so a move never needs a position object.  The default asks
+    // nextMove for the position and turns it into an index, so players such as the human player
+    // that only implement nextMove still work.  The computer players override this and
+    // implement nextMove on top of it.
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        BoardPosition pos = nextMove(board) ;
+        return pos.Row * board.cols() + pos.Col ;
+    }
+
+    //
+    // Returns if many threads can ask this player for moves at the same time.  Players that
+    // keep state between moves, or share one random number generator, are not.
+    //
+    public boolean isShareable() {
+        return false ;
+    }
+
+    //
+    // Compute the next move for each of many boards.  The boards are given by their index
+    // (see Board.encode()) and the move for each one is the index of the square to play, or -1
+    // if the game on that board is already over.  This player is the one to move on every
+    // board.  The move is the same one nextMove would return for the board.
+    //
+    // Arguments:
+    //    board - a board the size of the encoded boards, used to decode each one
+    //    boards - the indexes of the boards
+    //    moves - filled in with the move for each board
+    //
+    public void nextMoves(Board board, int [] boards, int [] moves) throws IllegalArgumentException {
+        if (moves.length < boards.length) {
+            throw new IllegalArgumentException("the moves array is shorter than the boards array") ;
+        }
+
+        nextMoves(board, boards, 0, boards.length, moves) ;
+    }
+
+    //
+    // Compute the next move for the boards from one index of the array up to another.  The
+    // default decodes each board and calls nextSquare.  Players that can find a move straight from
+    // the board index override this.
+    //
+    // Arguments:
+    //    board - a board the size of the encoded boards, used to decode each one
+    //    boards - the indexes of the boards
+    //    from - the first board to compute a move for
+    //    to - one past the last board
+    //    moves - filled in with the move for each board
+    //
+    protected void nextMoves(Board board, int [] boards, int from, int to, int [] moves) throws IllegalArgumentException {
+        for(int i = from ; i < to ; i++) {
+            board.decode(boards[i]) ;
+            if (board.hasWon() != null) {
+                moves[i] = -1 ;
+            }
+            else {
+                moves[i] = nextSquare(board) ;
+            }
+        }
+    }
+
+    //
+    // Compute the next move for each of many boards, splitting large batches across the
+    // common fork join pool.  Each piece of the batch gets its own board to decode into.  If the
+    // player can't be shared between threads, or the batch is small, the moves are computed on
+    // this thread.
+    //
+    // Arguments:
+    //    board - a board the size of the encoded boards, used to decode each one
+    //    boards - the indexes of the boards
+    //    moves - filled in with the move for each board
+    //
+    public void nextMovesParallel(Board board, int [] boards, int [] moves) throws IllegalArgumentException {
+        if (!isShareable() || boards.length <= BatchSize) {
+            nextMoves(board, boards, moves) ;
+            return ;
+        }
+
+        if (moves.length < boards.length) {
+            throw new IllegalArgumentException("the moves array is shorter than the boards array") ;
+        }
+
+        int rows = board.rows() ;
+        int cols = board.cols() ;
+        int k = board.winLength() ;
+        int batches = (boards.length + BatchSize - 1) / BatchSize ;
+        IntStream.range(0, batches).parallel().forEach(batch -> {
+            int from = batch * BatchSize ;
+            nextMoves(Board.create(rows, cols, k), boards, from, Math.min(from + BatchSize, boards.length), moves) ;
+        }) ;
+    }
+}
@@ -0,0 +1,95 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+//
+// This class creates players from the player type names given on the command line.  It
+// holds the command line settings that some of the players need, so the GameMgr can create new
+// players of the same types whenever it needs them, for example one pair for each thread.
+//
+public class PlayerFactory {
+    //
+    // The valid player type names
+    //
+    public static final String [] Types = new String[] {
+        "human", "perfect", "table", "tablebase", "mcts", "expert", "intermediate", "novice"
+    } ;
+
+    private final String tablebase_ ;               // The tablebase file for the tablebase player
+    private final int iterations_ ;                 // The playouts per move for the MCTS player
+    private final long millis_ ;                    // The time per move for the MCTS player
+
+    //
+    // Create the player factory
+    //
+    // Arguments:
+    //    tablebase - the tablebase file for the tablebase player
+    //    iterations - the number of playouts per move for the MCTS player, 0 to use the time budget
+    //    millis - the time per move in milliseconds for the MCTS player
+    //
+    public PlayerFactory(String tablebase, int iterations, long millis) {
+        tablebase_ = tablebase ;
+        iterations_ = iterations ;
+        millis_ = millis ;
+    }
+
+    //
+    // Return true if the given name is a valid player type
+    //
+    public static boolean isValidType(String type) {
+        return typeIndex(type) != -1 ;
+    }
+
+    //
+    // Return the index of a player type in Types, or -1 if it is not a valid type
+    //
+    public static int typeIndex(String type) {
+        for(int i = 0 ; i < Types.length ; i++) {
+            if (Types[i].equals(type))
+                return i ;
+        }
+
+        return -1 ;
+    }
+
+    //
+    // Create a player
+    //
+    // Arguments:
+    //    type - the player type (one of Types)
+    //    piece - game piece type (X or O)
+    //    seed - the seed for the random number generator of the player, if it has one
+    //
+    public Player create(String type, GamePiece piece, long seed) throws IllegalArgumentException, IOException {
+        Player ret = null ;
+
+        if (type.equals("human")) {
+            ret = new HumanPlayer(piece);
+        }
+        else if (type.equals("novice")) {
+            ret = new ComputerPlayer(piece, 0.3, seed);
+        }
+        else if (type.equals("intermediate")) {
+            ret = new ComputerPlayer(piece, 0.6, seed);
+        }
+        else if (type.equals("expert")) {
+            ret = new ComputerPlayer(piece, 1.0, seed);
+        }
+        else if (type.equals("perfect")) {
+            ret = new PerfectPlayer(piece);
+        }
+        else if (type.equals("table")) {
+            ret = new TablePlayer(piece);
+        }
+        else if (type.equals("mcts")) {
+            ret = new MctsPlayer(piece, iterations_, millis_, seed);
+        }
+        else if (type.equals("tablebase")) {
+            ret = new TablebasePlayer(piece, Path.of(tablebase_));
+        }
+        else {
+            throw new IllegalArgumentException("'" + type + "' is not a valid player type") ;
+        }
+
+        return ret ;
+    }
+}
@@ -0,0 +1,52 @@
+//
+// A player whose moves come from a client connected to the GameServer.  The server does not
+// keep a thread waiting for each player, so the move is handed to the player when the message
+// arrives on the socket and nextMove just returns it.  The GameSession only asks for a move
+// after one has been delivered.
+//
+public class RemotePlayer extends Player {
+    private BoardPosition move_ ;                   // The move that arrived and has not been played, or null
+
+    //
+    // Create the remote player
+    //
+    // Arguments:
+    //    p - the game piece for this player (X or O)
+    //
+    public RemotePlayer(GamePiece p) throws IllegalArgumentException {
+        super(p) ;
+    }
+
+    //
+    // The board is shown by the client, not by the server
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // Hand the player the move that arrived from the client
+    //
+    // Arguments:
+    //    pos - the square the client played
+    //
+    public void deliver(BoardPosition pos) {
+        move_ = pos ;
+    }
+
+    //
+    // Return the move that arrived from the client
+    //
+    // Arguments:
+    //    board - the board to evaluate for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        if (move_ == null) {
+            throw new IllegalStateException("no move has arrived from the remote player") ;
+        }
+
+        BoardPosition ret = move_ ;
+        move_ = null ;
+        return ret ;
+    }
+}
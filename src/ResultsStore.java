@@ -0,0 +1,192 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//
+// This class saves the result of every game played to a directory of column files.  Each
+// column is its own file holding one fixed size value per game, so a query only reads the
+// columns it needs and reads them straight through.  The ResultsTable maps the files and runs
+// the queries.
+//
+// The columns are:
+//    winner  - 1 byte, 0 for a tie, 1 for X and 2 for O
+//    length  - 2 bytes, the number of moves in the game
+//    line    - 2 bytes, the winning line as numbered by the board engine, -1 for a tie
+//    players - 1 byte, the index in PlayerFactory.Types of the X player times 16 plus the O player
+//    seed    - 8 bytes, the --seed of the run that played the game
+//    first   - 2 bytes, the first square played (row * cols + col)
+//
+// The store is append only.  Opening an existing store adds to the end of it, as long as the
+// games are played on the same size board.  Each thread that plays games gets its own Appender
+// which collects the results in buffers and writes them to the files in one batch, so the
+// threads only have to take turns once for every few thousand games.
+//
+public class ResultsStore implements Closeable {
+    public static final int Magic = 0x54545453 ;    // "TTTS"
+    public static final String MetaFile = "results.meta" ;
+
+    //
+    // The columns, their files and the size of each value in bytes
+    //
+    public static final int Winner = 0 ;
+    public static final int Length = 1 ;
+    public static final int Line = 2 ;
+    public static final int Players = 3 ;
+    public static final int Seed = 4 ;
+    public static final int First = 5 ;
+    public static final String [] ColumnFiles = new String[] { "winner.col", "length.col", "line.col", "players.col", "seed.col", "first.col" } ;
+    public static final int [] Widths = new int[] { 1, 2, 2, 1, 8, 2 } ;
+
+    private static final int BatchGames = 4096 ;    // The number of games an appender holds before it writes them
+
+    private final FileChannel [] channels_ ;        // The column files
+    private long games_ ;                           // The number of games in the store
+
+    //
+    // This class collects the results of the games played by one thread
+    //
+    public class Appender {
+        private final ByteBuffer [] buffers_ ;      // The results waiting to be written, one buffer per column
+        private final byte players_ ;               // The players of every game added by this appender
+        private final long seed_ ;                  // The seed of every game added by this appender
+
+        private Appender(int xtype, int otype, long seed) {
+            buffers_ = new ByteBuffer[ColumnFiles.length] ;
+            for(int col = 0 ; col < ColumnFiles.length ; col++) {
+                buffers_[col] = ByteBuffer.allocateDirect(BatchGames * Widths[col]) ;
+            }
+
+            players_ = (byte)((xtype << 4) | otype) ;
+            seed_ = seed ;
+        }
+
+        //
+        // Add the result of a game
+        //
+        // Arguments:
+        //    winner - who won the game, EMPTY for a tie
+        //    length - the number of moves in the game
+        //    line - the winning line, -1 for a tie
+        //    first - the first square played
+        //
+        public void add(GamePiece winner, int length, int line, int first) throws IOException {
+            buffers_[Winner].put((byte)Board.digit(winner)) ;
+            buffers_[Length].putShort((short)length) ;
+            buffers_[Line].putShort((short)line) ;
+            buffers_[Players].put(players_) ;
+            buffers_[Seed].putLong(seed_) ;
+            buffers_[First].putShort((short)first) ;
+
+            if (!buffers_[Winner].hasRemaining()) {
+                flush() ;
+            }
+        }
+
+        //
+        // Write the results collected so far to the store
+        //
+        public void flush() throws IOException {
+            write(buffers_) ;
+        }
+    }
+
+    //
+    // Open a results store, creating it if it does not exist
+    //
+    // Arguments:
+    //    dir - the directory holding the column files
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //
+    public ResultsStore(Path dir, int rows, int cols, int k) throws IllegalArgumentException, IOException {
+        if (rows * cols > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("results can only be stored for boards with up to " + Short.MAX_VALUE + " squares") ;
+        }
+
+        Files.createDirectories(dir) ;
+        Path meta = dir.resolve(MetaFile) ;
+        if (Files.exists(meta)) {
+            ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(meta)) ;
+            if (header.remaining() < 16 || header.getInt() != Magic) {
+                throw new IllegalArgumentException("the directory '" + dir + "' is not a results store") ;
+            }
+
+            if (header.getInt() != rows || header.getInt() != cols || header.getInt() != k) {
+                throw new IllegalArgumentException("the results store '" + dir + "' holds games played on a different board") ;
+            }
+        }
+        else {
+            ByteBuffer header = ByteBuffer.allocate(16) ;
+            header.putInt(Magic).putInt(rows).putInt(cols).putInt(k) ;
+            Files.write(meta, header.array()) ;
+        }
+
+        channels_ = new FileChannel[ColumnFiles.length] ;
+        for(int col = 0 ; col < ColumnFiles.length ; col++) {
+            channels_[col] = FileChannel.open(dir.resolve(ColumnFiles[col]), StandardOpenOption.CREATE, StandardOpenOption.WRITE) ;
+        }
+
+        //
+        // If a run was stopped part way through writing a batch the columns may not all have
+        // the same number of games.  Cut them all back to the last complete game.
+        //
+        games_ = Long.MAX_VALUE ;
+        for(int col = 0 ; col < ColumnFiles.length ; col++) {
+            games_ = Math.min(games_, channels_[col].size() / Widths[col]) ;
+        }
+
+        for(int col = 0 ; col < ColumnFiles.length ; col++) {
+            channels_[col].truncate(games_ * Widths[col]) ;
+            channels_[col].position(games_ * Widths[col]) ;
+        }
+    }
+
+    //
+    // Create an appender for a thread that plays games
+    //
+    // Arguments:
+    //    xtype - the type of the X player
+    //    otype - the type of the O player
+    //    seed - the seed of the run
+    //
+    public Appender appender(String xtype, String otype, long seed) {
+        return new Appender(PlayerFactory.typeIndex(xtype), PlayerFactory.typeIndex(otype), seed) ;
+    }
+
+    //
+    // Return the number of games in the store
+    //
+    public synchronized long games() {
+        return games_ ;
+    }
+
+    public synchronized void close() throws IOException {
+        for(FileChannel channel : channels_) {
+            channel.close() ;
+        }
+    }
+
+    //
+    // Write a batch of results to the end of the column files.  The appenders take turns
+    // so the columns always line up.
+    //
+    private synchronized void write(ByteBuffer [] buffers) throws IOException {
+        long games = buffers[Winner].position() / Widths[Winner] ;
+
+        for(int col = 0 ; col < ColumnFiles.length ; col++) {
+            ByteBuffer buffer = buffers[col] ;
+            buffer.flip() ;
+            while (buffer.hasRemaining()) {
+                channels_[col].write(buffer) ;
+            }
+            buffer.clear() ;
+        }
+
+        games_ += games ;
+    }
+}
@@ -0,0 +1,302 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//
+// This class runs queries over a results store written by the ResultsStore.  Each column file
+// is memory mapped read only, and a query walks the mapped columns it needs from the first game
+// to the last.  The columns a query does not look at are never read from the disk, and the ones
+// it does look at are read in order, so a query runs at the speed of memory rather than the
+// speed of playing the games again.
+//
+// A column file is mapped with a single buffer, so a store can hold up to 2 GB of any one
+// column, which is 268 million games because of the 8 byte seed column.
+//
+public class ResultsTable {
+    private final MappedByteBuffer [] columns_ ;    // The mapped column files
+    private final int rows_ ;                       // The number of rows on the board
+    private final int cols_ ;                       // The number of columns on the board
+    private final int k_ ;                          // The number in a row needed to win
+    private final int games_ ;                      // The number of games in the store
+
+    //
+    // The conditions a game must meet to be counted by a query.  A null array matches
+    // every value.
+    //
+    public static class Filter {
+        public boolean [] players ;                 // The players byte values to count, 256 entries
+        public boolean [] first ;                   // The first squares to count, one entry per square
+        public int minLength = 0 ;                  // The shortest game to count
+        public int maxLength = Integer.MAX_VALUE ;  // The longest game to count
+        public Long seed ;                          // The seed of the games to count, or null for all seeds
+    }
+
+    //
+    // Open a results store for queries
+    //
+    // Arguments:
+    //    dir - the directory holding the column files
+    //
+    public ResultsTable(Path dir) throws IllegalArgumentException, IOException {
+        Path meta = dir.resolve(ResultsStore.MetaFile) ;
+        ByteBuffer header = Files.exists(meta) ? ByteBuffer.wrap(Files.readAllBytes(meta)) : ByteBuffer.allocate(0) ;
+        if (header.remaining() < 16 || header.getInt() != ResultsStore.Magic) {
+            throw new IllegalArgumentException("the directory '" + dir + "' is not a results store") ;
+        }
+
+        rows_ = header.getInt() ;
+        cols_ = header.getInt() ;
+        k_ = header.getInt() ;
+
+        columns_ = new MappedByteBuffer[ResultsStore.ColumnFiles.length] ;
+        long games = Long.MAX_VALUE ;
+        for(int col = 0 ; col < columns_.length ; col++) {
+            try (FileChannel channel = FileChannel.open(dir.resolve(ResultsStore.ColumnFiles[col]), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("the results store '" + dir + "' is too large to map") ;
+                }
+
+                columns_[col] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()) ;
+                games = Math.min(games, channel.size() / ResultsStore.Widths[col]) ;
+            }
+        }
+
+        games_ = (int)games ;
+    }
+
+    //
+    // Return the number of rows on the board the games were played on
+    //
+    public int rows() {
+        return rows_ ;
+    }
+
+    //
+    // Return the number of columns on the board the games were played on
+    //
+    public int cols() {
+        return cols_ ;
+    }
+
+    //
+    // Return the number in a row needed to win on the board the games were played on
+    //
+    public int winLength() {
+        return k_ ;
+    }
+
+    //
+    // Return the number of games in the store
+    //
+    public int games() {
+        return games_ ;
+    }
+
+    //
+    // Count the games that match a filter
+    //
+    // Arguments:
+    //    filter - the games to count
+    //
+    // Returns the number of games tied, won by X and won by O, indexed by the winner column value
+    //
+    public long [] count(Filter filter) {
+        MappedByteBuffer winner = columns_[ResultsStore.Winner] ;
+        MappedByteBuffer length = columns_[ResultsStore.Length] ;
+        MappedByteBuffer players = columns_[ResultsStore.Players] ;
+        MappedByteBuffer seed = columns_[ResultsStore.Seed] ;
+        MappedByteBuffer first = columns_[ResultsStore.First] ;
+
+        boolean lengths = filter.minLength > 0 || filter.maxLength < Integer.MAX_VALUE ;
+        long seedValue = (filter.seed != null) ? filter.seed : 0 ;
+        long [] counts = new long[3] ;
+
+        for(int game = 0 ; game < games_ ; game++) {
+            if (filter.players != null && !filter.players[players.get(game) & 0xFF])
+                continue ;
+
+            if (filter.first != null && !filter.first[first.getShort(game * 2)])
+                continue ;
+
+            if (lengths) {
+                int moves = length.getShort(game * 2) ;
+                if (moves < filter.minLength || moves > filter.maxLength)
+                    continue ;
+            }
+
+            if (filter.seed != null && seed.getLong(game * 8) != seedValue)
+                continue ;
+
+            counts[winner.get(game)]++ ;
+        }
+
+        return counts ;
+    }
+
+    //
+    // Return the squares named on the command line, either a comma separated list of square
+    // numbers (row * cols + col) or one of the words corner, center and edge
+    //
+    private boolean [] squares(String which) throws IllegalArgumentException {
+        boolean [] ret = new boolean[rows_ * cols_] ;
+
+        for(int row = 0 ; row < rows_ ; row++) {
+            for(int col = 0 ; col < cols_ ; col++) {
+                boolean top = (row == 0 || row == rows_ - 1) ;
+                boolean side = (col == 0 || col == cols_ - 1) ;
+                boolean middle = (row == (rows_ - 1) / 2 || row == rows_ / 2) && (col == (cols_ - 1) / 2 || col == cols_ / 2) ;
+
+                if (which.equals("corner")) {
+                    ret[row * cols_ + col] = top && side ;
+                }
+                else if (which.equals("center")) {
+                    ret[row * cols_ + col] = middle ;
+                }
+                else if (which.equals("edge")) {
+                    ret[row * cols_ + col] = (top || side) && !(top && side) ;
+                }
+            }
+        }
+
+        if (!which.equals("corner") && !which.equals("center") && !which.equals("edge")) {
+            for(String square : which.split(",")) {
+                int sq = -1 ;
+                try {
+                    sq = Integer.parseInt(square) ;
+                }
+                catch(NumberFormatException ex) {
+                }
+
+                if (sq < 0 || sq >= ret.length) {
+                    throw new IllegalArgumentException("the --first value '" + which + "' must be corner, center, edge or a list of squares from 0 to " + (ret.length - 1)) ;
+                }
+                ret[sq] = true ;
+            }
+        }
+
+        return ret ;
+    }
+
+    //
+    // Return the players byte values that match the X and O player types, either of which
+    // can be null to match any player
+    //
+    private static boolean [] players(String xtype, String otype) throws IllegalArgumentException {
+        if (xtype == null && otype == null)
+            return null ;
+
+        int x = (xtype == null) ? -1 : PlayerFactory.typeIndex(xtype) ;
+        int o = (otype == null) ? -1 : PlayerFactory.typeIndex(otype) ;
+        if ((xtype != null && x == -1) || (otype != null && o == -1)) {
+            throw new IllegalArgumentException("the player type must be one of " + String.join(", ", PlayerFactory.Types)) ;
+        }
+
+        boolean [] ret = new boolean[256] ;
+        for(int value = 0 ; value < ret.length ; value++) {
+            ret[value] = (x == -1 || (value >> 4) == x) && (o == -1 || (value & 0x0F) == o) ;
+        }
+
+        return ret ;
+    }
+
+    //
+    // Return the value after an argument, exiting if there is none
+    //
+    private static String argument(String [] args, int i) {
+        if (i == args.length - 1) {
+            System.err.println("the " + args[i] + " argument must be followed by a value") ;
+            System.exit(1) ;
+        }
+
+        return args[i + 1] ;
+    }
+
+    //
+    // Count the games in a results store that match the conditions on the command line and
+    // print how often each side won.  For example, the win rate of a novice O player when X
+    // opens in a corner is
+    //
+    //    java ResultsTable results --o novice --first corner
+    //
+    // Arguments:
+    //   dir                        ' the results store directory
+    //   --x type                   ' only count games where X was this player type
+    //   --o type                   ' only count games where O was this player type
+    //   --first squares            ' only count games where X opened on one of these squares
+    //   --min-length number        ' only count games at least this many moves long
+    //   --max-length number        ' only count games at most this many moves long
+    //   --seed number              ' only count games played with this seed
+    //
+    static public void main(String[] args) {
+        if (args.length < 1 || args[0].startsWith("--")) {
+            System.err.println("usage: ResultsTable dir [--x type] [--o type] [--first corner|center|edge|n,n,...] [--min-length n] [--max-length n] [--seed n]") ;
+            System.exit(1) ;
+        }
+
+        long [] counts = null ;
+        long start = 0 ;
+        long secs = 0 ;
+        ResultsTable table = null ;
+
+        try {
+            table = new ResultsTable(Path.of(args[0])) ;
+
+            Filter filter = new Filter() ;
+            String xtype = null ;
+            String otype = null ;
+            for(int i = 1 ; i < args.length ; i += 2) {
+                String value = argument(args, i) ;
+                if (args[i].equals("--x")) {
+                    xtype = value ;
+                }
+                else if (args[i].equals("--o")) {
+                    otype = value ;
+                }
+                else if (args[i].equals("--first")) {
+                    filter.first = table.squares(value) ;
+                }
+                else if (args[i].equals("--min-length")) {
+                    filter.minLength = Integer.parseInt(value) ;
+                }
+                else if (args[i].equals("--max-length")) {
+                    filter.maxLength = Integer.parseInt(value) ;
+                }
+                else if (args[i].equals("--seed")) {
+                    filter.seed = Long.parseLong(value) ;
+                }
+                else {
+                    System.err.println("unknown argument '" + args[i] + "'") ;
+                    System.exit(1) ;
+                }
+            }
+            filter.players = players(xtype, otype) ;
+
+            start = System.nanoTime() ;
+            counts = table.count(filter) ;
+            secs = System.nanoTime() - start ;
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("a number argument is not valid - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not read the results store '" + args[0] + "' - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+
+        long matched = counts[0] + counts[1] + counts[2] ;
+        double total = Math.max(1, matched) ;
+        System.out.printf("%d of %d games matched\n", matched, table.games()) ;
+        System.out.printf("X: %d (%.1f%%), O: %d (%.1f%%), tied: %d (%.1f%%)\n",
+                            counts[1], 100.0 * counts[1] / total, counts[2], 100.0 * counts[2] / total, counts[0], 100.0 * counts[0] / total) ;
+        System.out.printf("scanned %d games in %.3f seconds, %.0f games/sec\n", table.games(), secs / 1.0e9, table.games() / Math.max(1.0e-9, secs / 1.0e9)) ;
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+
+//
+// This class describes the eight symmetries of a square board: the four rotations and the
+// four reflections.  Two boards that are the same after one of these transforms have the same
+// value and the same best moves, so a cache of positions only needs to store one of them.  The
+// one that is stored is the canonical form, which is the transform of the board with the
+// smallest X mask, and the smallest O mask when the X masks are the same.
+//
+// The transforms work on the X and O bit masks of the board (see Board.getMask()), so no
+// copies of the board are made.  For boards up to 4x4 each transform is done with a lookup
+// table for each 8 bit part of the mask.
+//
+public class Symmetry {
+    //
+    // The number of symmetries of a square board
+    //
+    public static final int Count = 8 ;
+
+    //
+    // The transforms of the classic 3x3 board and the 4x4 board
+    //
+    private static final Symmetry Classic = new Symmetry(3) ;
+    private static final Symmetry Four = new Symmetry(4) ;
+
+    private final int side_ ;                       // The number of rows and columns on the board
+    private final int [][] apply_ ;                 // The square each square moves to for each transform
+    private final int [][] invert_ ;                // The square each square came from for each transform
+    private final int [] inverse_ ;                 // The transform that undoes each transform
+    private final long [][][] bytes_ ;              // The transformed mask for each byte of a mask, or null
+
+    //
+    // Return the symmetries for a square board of the given size
+    //
+    // Arguments:
+    //    side - the number of rows and columns on the board
+    //
+    public static Symmetry forSide(int side) throws IllegalArgumentException {
+        if (side == 3)
+            return Classic ;
+
+        if (side == 4)
+            return Four ;
+
+        return new Symmetry(side) ;
+    }
+
+    //
+    // Create the symmetries for a square board
+    //
+    // Arguments:
+    //    side - the number of rows and columns on the board
+    //
+    private Symmetry(int side) throws IllegalArgumentException {
+        if (side < 1 || side * side > 64) {
+            throw new IllegalArgumentException("symmetries are only available for square boards with 64 or fewer squares") ;
+        }
+
+        int squares = side * side ;
+        side_ = side ;
+        apply_ = new int[Count][squares] ;
+        invert_ = new int[Count][squares] ;
+        inverse_ = new int[Count] ;
+
+        int last = side - 1 ;
+        for(int row = 0 ; row < side ; row++) {
+            for(int col = 0 ; col < side ; col++) {
+                int [] rows = new int[] { row, col, last - row, last - col, row, last - row, col, last - col } ;
+                int [] cols = new int[] { col, last - row, last - col, row, last - col, col, row, last - row } ;
+
+                for(int t = 0 ; t < Count ; t++) {
+                    int to = rows[t] * side + cols[t] ;
+                    apply_[t][row * side + col] = to ;
+                    invert_[t][to] = row * side + col ;
+                }
+            }
+        }
+
+        for(int t = 0 ; t < Count ; t++) {
+            for(int u = 0 ; u < Count ; u++) {
+                if (Arrays.equals(apply_[t], invert_[u])) {
+                    inverse_[t] = u ;
+                }
+            }
+        }
+
+        //
+        // The lookup tables are only worth building for the small boards
+        //
+        if (squares <= 16) {
+            int parts = (squares + 7) / 8 ;
+            bytes_ = new long[Count][parts][256] ;
+            for(int t = 0 ; t < Count ; t++) {
+                for(int part = 0 ; part < parts ; part++) {
+                    for(int value = 0 ; value < 256 ; value++) {
+                        bytes_[t][part][value] = slowApply(t, ((long)value << (part * 8)) & mask(squares)) ;
+                    }
+                }
+            }
+        }
+        else {
+            bytes_ = null ;
+        }
+    }
+
+    //
+    // Return the number of rows and columns on the board
+    //
+    public int side() {
+        return side_ ;
+    }
+
+    //
+    // Return the square that the given square moves to under a transform
+    //
+    // Arguments:
+    //    t - the transform, 0 to Count - 1
+    //    square - the index of the square
+    //
+    public int apply(int t, int square) {
+        return apply_[t][square] ;
+    }
+
+    //
+    // Return the square that moved to the given square under a transform.  This maps a move
+    // on the canonical board back to the same move on the original board.
+    //
+    // Arguments:
+    //    t - the transform, 0 to Count - 1
+    //    square - the index of the square after the transform
+    //
+    public int invert(int t, int square) {
+        return invert_[t][square] ;
+    }
+
+    //
+    // Return the transform that undoes the given transform
+    //
+    public int inverse(int t) {
+        return inverse_[t] ;
+    }
+
+    //
+    // Return the mask after a transform
+    //
+    // Arguments:
+    //    t - the transform, 0 to Count - 1
+    //    mask - a mask of squares
+    //
+    public long applyMask(int t, long mask) {
+        if (bytes_ == null)
+            return slowApply(t, mask) ;
+
+        long [][] table = bytes_[t] ;
+        long ret = table[0][(int)(mask & 0xFF)] ;
+        if (table.length > 1) {
+            ret |= table[1][(int)((mask >>> 8) & 0xFF)] ;
+        }
+
+        return ret ;
+    }
+
+    //
+    // Return the transform that turns the board with the given masks into its
+    // canonical form
+    //
+    // Arguments:
+    //    x - the mask of the X pieces
+    //    o - the mask of the O pieces
+    //
+    public int canonical(long x, long o) {
+        int best = 0 ;
+        long bestx = x ;
+        long besto = o ;
+
+        for(int t = 1 ; t < Count ; t++) {
+            long tx = applyMask(t, x) ;
+            int cmp = Long.compareUnsigned(tx, bestx) ;
+            if (cmp > 0)
+                continue ;
+
+            long to = applyMask(t, o) ;
+            if (cmp < 0 || Long.compareUnsigned(to, besto) < 0) {
+                best = t ;
+                bestx = tx ;
+                besto = to ;
+            }
+        }
+
+        return best ;
+    }
+
+    //
+    // Transform a mask one square at a time
+    //
+    private long slowApply(int t, long mask) {
+        long ret = 0 ;
+        while (mask != 0) {
+            int square = Long.numberOfTrailingZeros(mask) ;
+            ret |= 1L << apply_[t][square] ;
+            mask &= mask - 1 ;
+        }
+
+        return ret ;
+    }
+
+    //
+    // Return the mask with all of the squares set
+    //
+    private static long mask(int squares) {
+        return (squares == 64) ? -1L : (1L << squares) - 1 ;
+    }
+}
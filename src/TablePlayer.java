@@ -0,0 +1,150 @@
+//
+// This class implements a computer player that plays perfectly on the classic 3x3 board
+// by looking up its move in a table.  The table has an entry for each of the 3^9 = 19683 board
+// indexes (see Board.encode()) and is built once when the class is loaded using the same search
+// as the PerfectPlayer.  Picking a move is a single array read with no search.
+//
+public class TablePlayer extends Player {
+    //
+    // The best square for X and for O to play for each board index.  Entries for boards that
+    // can't be played (full or already won) are -1.
+    //
+    private static final byte [] XMoves = new byte[Board.indexCount(9)] ;
+    private static final byte [] OMoves = new byte[Board.indexCount(9)] ;
+
+    //
+    // The position for each of the nine squares, so a move does not create a new object
+    //
+    private static final BoardPosition [] Squares = new BoardPosition[9] ;
+
+    static {
+        for(int square = 0 ; square < 9 ; square++) {
+            Squares[square] = BoardPosition.of(square / 3, square % 3) ;
+        }
+
+        for(int index = 0 ; index < XMoves.length ; index++) {
+            //
+            // Split the index into the X and O masks
+            //
+            int x = 0 ;
+            int o = 0 ;
+            int rest = index ;
+            for(int square = 0 ; square < 9 ; square++) {
+                GamePiece gp = Board.piece(rest % 3) ;
+                if (gp == GamePiece.X) {
+                    x |= 1 << square ;
+                }
+                else if (gp == GamePiece.O) {
+                    o |= 1 << square ;
+                }
+                rest /= 3 ;
+            }
+
+            XMoves[index] = -1 ;
+            OMoves[index] = -1 ;
+            if (!isOver(x, o)) {
+                XMoves[index] = (byte)PerfectPlayer.bestMove(x, o) ;
+                OMoves[index] = (byte)PerfectPlayer.bestMove(o, x) ;
+            }
+        }
+    }
+
+    //
+    // The table for this player's game piece
+    //
+    private final byte [] moves_ ;
+
+    //
+    // Create the table player
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //
+    public TablePlayer(GamePiece p) throws IllegalArgumentException {
+        super(p) ;
+
+        moves_ = (p == GamePiece.X) ? XMoves : OMoves ;
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // The table only knows the classic 3x3 board
+    //
+    public boolean canPlay(Board board) {
+        return board.rows() == 3 && board.cols() == 3 && board.winLength() == 3 ;
+    }
+
+    //
+    // Compute the next move for the computer player
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        return Squares[moves_[board.encode()]] ;
+    }
+
+    //
+    // Compute the next move as the index of the square to play
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        return moves_[board.encode()] ;
+    }
+
+    //
+    // The tables are safe to share between threads
+    //
+    public boolean isShareable() {
+        return true ;
+    }
+
+    //
+    // Compute the next move for many boards.  Each move is read from the table with the
+    // board index, so the boards are never decoded.
+    //
+    // Arguments:
+    //    board - a classic board, not used
+    //    boards - the indexes of the boards
+    //    from - the first board to compute a move for
+    //    to - one past the last board
+    //    moves - filled in with the move for each board, or -1 if the game is over
+    //
+    protected void nextMoves(Board board, int [] boards, int from, int to, int [] moves) throws IllegalArgumentException {
+        if (!canPlay(board)) {
+            throw new IllegalArgumentException("the table player only plays on the classic board") ;
+        }
+
+        for(int i = from ; i < to ; i++) {
+            int index = boards[i] ;
+            if (index < 0 || index >= moves_.length) {
+                throw new IllegalArgumentException("the value " + index + " is not a valid board index") ;
+            }
+            moves[i] = moves_[index] ;
+        }
+    }
+
+    //
+    // Return true if the game is over, either the board is full or someone has won
+    //
+    private static boolean isOver(int x, int o) {
+        if ((x | o) == BitBoardEngine.FullMask)
+            return true ;
+
+        for(int line : BitBoardEngine.LineMasks) {
+            if ((x & line) == line || (o & line) == line)
+                return true ;
+        }
+
+        return false ;
+    }
+}
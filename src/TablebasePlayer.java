@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//
+// This class implements a computer player that looks up its moves in a tablebase file
+// written by the TablebaseSolver.  The file is memory mapped read only, so opening it is
+// instant and the data lives in the operating system page cache rather than on the heap.  Only
+// the pages for boards that are actually looked up are ever read from the disk.
+//
+public class TablebasePlayer extends Player {
+    private final MappedByteBuffer table_ ;         // The mapped tablebase file
+    private final int rows_ ;                       // The number of rows the tablebase was solved for
+    private final int cols_ ;                       // The number of columns the tablebase was solved for
+    private final int k_ ;                          // The number in a row the tablebase was solved for
+
+    //
+    // Create the tablebase player
+    //
+    // Arguments:
+    //    p - X or O for this player
+    //    file - the tablebase file written by the TablebaseSolver
+    //
+    public TablebasePlayer(GamePiece p, Path file) throws IllegalArgumentException, IOException {
+        super(p) ;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            table_ = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()) ;
+        }
+
+        if (table_.capacity() < TablebaseSolver.HeaderSize || table_.getInt(0) != TablebaseSolver.Magic) {
+            throw new IllegalArgumentException("the file '" + file + "' is not a tablebase file") ;
+        }
+
+        rows_ = table_.getInt(4) ;
+        cols_ = table_.getInt(8) ;
+        k_ = table_.getInt(12) ;
+
+        if (table_.capacity() != TablebaseSolver.HeaderSize + Board.indexCount(rows_ * cols_)) {
+            throw new IllegalArgumentException("the tablebase file '" + file + "' is the wrong size") ;
+        }
+    }
+
+    //
+    // Returns if the player requires the board to be shown before its move.
+    // A computer player does not.
+    //
+    public boolean showBoard() {
+        return false ;
+    }
+
+    //
+    // The tablebase only knows the board size it was solved for
+    //
+    public boolean canPlay(Board board) {
+        return board.rows() == rows_ && board.cols() == cols_ && board.winLength() == k_ ;
+    }
+
+    //
+    // The mapped file is only read, so the player is safe to share between threads
+    //
+    public boolean isShareable() {
+        return true ;
+    }
+
+    //
+    // Compute the next move for the computer player
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public BoardPosition nextMove(Board board) {
+        return board.position(nextSquare(board)) ;
+    }
+
+    //
+    // Compute the next move as the index of the square to play
+    //
+    // Arguments:
+    //    board - the board to evalute for the next move
+    //
+    public int nextSquare(Board board) {
+        int entry = table_.get(TablebaseSolver.HeaderSize + board.encode()) ;
+        if ((entry >> 4 & 0x03) == TablebaseSolver.Unknown) {
+            throw new IllegalStateException("the board is not in the tablebase") ;
+        }
+
+        return entry & 0x0F ;
+    }
+}
@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+//
+// This class solves every position on a small board offline and writes the result to a
+// tablebase file that the TablebasePlayer reads.  The board can have at most 16 squares, which is
+// enough for the 4x4 board where there are 3^16 (about 43 million) board indexes.
+//
+// The solver works backward from the end of the game one layer at a time.  A layer is all
+// boards with the same number of pieces played.  The last layer is the full boards, which
+// are all either won or tied.  The value of a board in any other layer only depends on the
+// boards one move later, which are in the layer that was solved just before it.  Every board in
+// a layer is independent of the others, so each layer is split across all of the cores.
+//
+// The tablebase file has a header of four ints (the magic number, rows, columns and the
+// number in a row to win), followed by one byte for each board index (see Board.encode()).
+// The low four bits of the byte are the best square for the player to move, and the next two bits
+// are the value of the board for the player to move.
+//
+public class TablebaseSolver {
+    //
+    // The values stored in the tablebase
+    //
+    public static final int Unknown = 0 ;          // The board can't happen in a real game
+    public static final int Win = 1 ;              // The player to move wins
+    public static final int Draw = 2 ;             // The game is a tie
+    public static final int Loss = 3 ;             // The player to move loses
+
+    public static final int Magic = 0x54545442 ;   // "TTTB"
+    public static final int HeaderSize = 16 ;      // The size of the header in bytes
+    public static final int MaxSquares = 16 ;      // The largest board the solver handles
+
+    //
+    // The file the solver writes and the tablebase player reads if no file is given
+    //
+    public static final String DefaultFile = "tictactoe4x4.tb" ;
+
+    //
+    // The boards are split into the first eight squares and the rest.  Each half is a
+    // base 3 number, and these tables give the X and O masks for each value of a half.
+    //
+    private static final int HalfSquares = 8 ;
+    private static final int HalfCount = 6561 ;                 // 3 to the power 8
+    private static final int [] HalfX = new int[HalfCount] ;
+    private static final int [] HalfO = new int[HalfCount] ;
+
+    static {
+        for(int half = 0 ; half < HalfCount ; half++) {
+            int rest = half ;
+            for(int square = 0 ; square < HalfSquares ; square++) {
+                GamePiece gp = Board.piece(rest % 3) ;
+                if (gp == GamePiece.X) {
+                    HalfX[half] |= 1 << square ;
+                }
+                else if (gp == GamePiece.O) {
+                    HalfO[half] |= 1 << square ;
+                }
+                rest /= 3 ;
+            }
+        }
+    }
+
+    private final int rows_ ;                       // The number of rows on the board
+    private final int cols_ ;                       // The number of columns on the board
+    private final int k_ ;                          // The number in a row needed to win
+    private final int squares_ ;                    // The number of squares on the board
+    private final int [] lines_ ;                   // The mask for each line where a player can win
+    private final int [] pow3_ ;                    // The powers of 3 for each square
+
+    //
+    // The score of each board for the player to move while solving.  A win is scored as one
+    // plus the number of empty squares, so a faster win scores higher.  A loss is the negative.
+    //
+    private final byte [] scores_ ;
+
+    //
+    // The tablebase entry for each board
+    //
+    private final byte [] entries_ ;
+
+    //
+    // Create a solver for the given board size
+    //
+    // Arguments:
+    //    rows - the number of rows on the board
+    //    cols - the number of columns on the board
+    //    k - the number in a row needed to win
+    //
+    public TablebaseSolver(int rows, int cols, int k) throws IllegalArgumentException {
+        if (rows * cols > MaxSquares) {
+            throw new IllegalArgumentException("the tablebase solver handles at most " + MaxSquares + " squares") ;
+        }
+
+        //
+        // Let the board engine check the size, and find the lines on the board
+        //
+        MnkBoardEngine engine = new MnkBoardEngine(rows, cols, k) ;
+        List<Integer> lines = new ArrayList<Integer>() ;
+        for(int line = 0 ; line < engine.lineCount() ; line++) {
+            int mask = 0 ;
+            for(BoardPosition pos : engine.lineSquares(line)) {
+                mask |= 1 << (pos.Row * cols + pos.Col) ;
+            }
+            lines.add(mask) ;
+        }
+
+        rows_ = rows ;
+        cols_ = cols ;
+        k_ = k ;
+        squares_ = rows * cols ;
+        lines_ = lines.stream().mapToInt(Integer::intValue).toArray() ;
+
+        pow3_ = new int[squares_] ;
+        for(int square = 0 ; square < squares_ ; square++) {
+            pow3_[square] = (square == 0) ? 1 : pow3_[square - 1] * 3 ;
+        }
+
+        scores_ = new byte[Board.indexCount(squares_)] ;
+        entries_ = new byte[scores_.length] ;
+    }
+
+    //
+    // Solve every board, starting with the full boards and working back to the empty board
+    //
+    public void solve() {
+        int hicount = Board.indexCount(Math.max(0, squares_ - HalfSquares)) ;
+        int locount = Board.indexCount(Math.min(squares_, HalfSquares)) ;
+
+        for(int played = squares_ ; played >= 0 ; played--) {
+            final int layer = played ;
+            IntStream.range(0, hicount).parallel().forEach(hi -> {
+                for(int lo = 0 ; lo < locount ; lo++) {
+                    int x = HalfX[lo] | (HalfX[hi] << HalfSquares) ;
+                    int o = HalfO[lo] | (HalfO[hi] << HalfSquares) ;
+                    if (Integer.bitCount(x | o) == layer) {
+                        solveBoard(hi * locount + lo, x, o, layer) ;
+                    }
+                }
+            }) ;
+        }
+    }
+
+    //
+    // Write the tablebase to a file
+    //
+    // Arguments:
+    //    file - the file to write
+    //
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HeaderSize) ;
+            header.putInt(Magic).putInt(rows_).putInt(cols_).putInt(k_).flip() ;
+
+            ByteBuffer data = ByteBuffer.wrap(entries_) ;
+            while (header.hasRemaining() || data.hasRemaining()) {
+                channel.write(new ByteBuffer[] { header, data }) ;
+            }
+        }
+    }
+
+    //
+    // Solve one board.  All of the boards one move later have already been solved.
+    //
+    // Arguments:
+    //    index - the index of the board
+    //    x - the mask of the X pieces
+    //    o - the mask of the O pieces
+    //    played - the number of pieces on the board
+    //
+    private void solveBoard(int index, int x, int o, int played) {
+        //
+        // X moves first, so X has the extra piece after an odd number of moves.  Any other
+        // count of pieces can't happen in a game.
+        //
+        int xcount = Integer.bitCount(x) ;
+        if (xcount != (played + 1) / 2)
+            return ;
+
+        boolean xmoves = (played % 2) == 0 ;
+        int me = xmoves ? x : o ;
+        int them = xmoves ? o : x ;
+        int empty = squares_ - played ;
+
+        //
+        // If the player to move already has a line, the game would have ended before now
+        //
+        if (hasLine(me))
+            return ;
+
+        if (hasLine(them)) {
+            scores_[index] = (byte)-(1 + empty) ;
+            entries_[index] = (byte)(Loss << 4) ;
+            return ;
+        }
+
+        if (empty == 0) {
+            scores_[index] = 0 ;
+            entries_[index] = (byte)(Draw << 4) ;
+            return ;
+        }
+
+        int digit = Board.digit(xmoves ? GamePiece.X : GamePiece.O) ;
+        int best = -1 ;
+        int score = Integer.MIN_VALUE ;
+        for(int square = 0 ; square < squares_ ; square++) {
+            if (((x | o) & (1 << square)) != 0)
+                continue ;
+
+            int child = -scores_[index + digit * pow3_[square]] ;
+            if (child > score) {
+                score = child ;
+                best = square ;
+            }
+        }
+
+        int value = (score > 0) ? Win : (score < 0) ? Loss : Draw ;
+        scores_[index] = (byte)score ;
+        entries_[index] = (byte)((value << 4) | best) ;
+    }
+
+    //
+    // Return true if the mask holds a complete line
+    //
+    private boolean hasLine(int mask) {
+        for(int line : lines_) {
+            if ((mask & line) == line)
+                return true ;
+        }
+
+        return false ;
+    }
+
+    //
+    // Solve a board and write the tablebase.
+    //
+    // Arguments:
+    //   --rows number              ' number of rows on the board (default 4)
+    //   --cols number              ' number of columns on the board (default 4)
+    //   --k number                 ' number in a row needed to win (default 4)
+    //   --out file                 ' the tablebase file to write
+    //
+    static public void main(String[] args) {
+        int rows = 4 ;
+        int cols = 4 ;
+        int k = 4 ;
+        String out = DefaultFile ;
+
+        try {
+            for(int i = 0 ; i < args.length ; i++) {
+                if (args[i].equals("--rows") && i < args.length - 1) {
+                    rows = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--cols") && i < args.length - 1) {
+                    cols = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--k") && i < args.length - 1) {
+                    k = Integer.parseInt(args[++i]) ;
+                }
+                else if (args[i].equals("--out") && i < args.length - 1) {
+                    out = args[++i] ;
+                }
+                else {
+                    System.err.println("usage: TablebaseSolver [--rows number] [--cols number] [--k number] [--out file]") ;
+                    System.exit(1) ;
+                }
+            }
+        }
+        catch(NumberFormatException ex) {
+            System.err.println("the board size arguments must be integers") ;
+            System.exit(1) ;
+        }
+
+        try {
+            long start = System.nanoTime() ;
+            TablebaseSolver solver = new TablebaseSolver(rows, cols, k) ;
+            solver.solve() ;
+            solver.write(Path.of(out)) ;
+
+            double secs = (System.nanoTime() - start) / 1.0e9 ;
+            System.out.printf("Solved %dx%d with %d in a row on %d cores in %.1f seconds, wrote '%s'\n",
+                                rows, cols, k, Runtime.getRuntime().availableProcessors(), secs, out) ;
+        }
+        catch(IllegalArgumentException ex) {
+            System.err.println(ex.getMessage()) ;
+            System.exit(1) ;
+        }
+        catch(IOException ex) {
+            System.err.println("could not write the tablebase file '" + out + "' - " + ex.getMessage()) ;
+            System.exit(1) ;
+        }
+    }
+}